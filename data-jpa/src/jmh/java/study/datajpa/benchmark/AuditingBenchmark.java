@@ -0,0 +1,81 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.JpaBaseEntity;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 등록 한건당 auditing 비용
+//  markCreated - AuditingEntityListener가 persist 때 하는 일 (등록일, 수정일, 등록자, 수정자)
+//  prePersist  - JpaBaseEntity의 @PrePersist (등록일, 수정일만)
+//  saveAllBatched - 실제 insert까지 포함한 1000건
+// mode=uuid 가 예전 방식(저장마다 UUID.randomUUID), request가 AuditorHolder
+// ./gradlew jmh -PjmhIncludes=AuditingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuditingBenchmark {
+
+    private static final int SAVE_ROWS = 1_000;
+
+    @Param({"uuid", "request"})
+    String mode;
+
+    ConfigurableApplicationContext context;
+    AuditingHandler auditingHandler;
+    MemberRepository memberRepository;
+    TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("datajpa.audit.mode=" + mode);
+        auditingHandler = context.getBean(AuditingHandler.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object markCreated() {
+        return auditingHandler.markCreated(new Member("audit"));
+    }
+
+    @Benchmark
+    public Object prePersist() {
+        JpaBaseEntity entity = new JpaBaseEntity();
+        entity.prePersist();
+        return entity;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Integer saveAllBatched() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            List<Member> members = new ArrayList<>(SAVE_ROWS);
+            for (int i = 0; i < SAVE_ROWS; i++) {
+                members.add(new Member("audit" + i, i % 100));
+            }
+            return memberRepository.saveAllBatched(members, 100);
+        });
+    }
+}
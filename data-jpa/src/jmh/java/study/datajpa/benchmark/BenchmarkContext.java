@@ -0,0 +1,55 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 벤치마크용 스프링 컨텍스트 - 메모리 H2에 JPA 계층만 띄운다. (웹 서버 x, SQL 로그 x)
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    // properties는 "key=value" 형식, application.yml보다 우선 적용된다.
+    public static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "spring.jpa.properties.hibernate.show_sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "logging.level.root=warn"));
+        args.addAll(List.of(properties));   //기본값 덮어쓰기
+
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.stream().map(arg -> "--" + arg).toArray(String[]::new));
+    }
+
+    // teams개의 팀에 membersPerTeam명씩 저장
+    public static List<Member> seed(ConfigurableApplicationContext context, int teams, int membersPerTeam) {
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+
+        List<Team> savedTeams = new ArrayList<>();
+        for (int i = 0; i < teams; i++) {
+            savedTeams.add(new Team("team" + i));
+        }
+        teamRepository.saveAll(savedTeams);
+
+        List<Member> members = new ArrayList<>();
+        for (Team team : savedTeams) {
+            for (int i = 0; i < membersPerTeam; i++) {
+                members.add(new Member(team.getName() + "-member" + i, i % 100, team));
+            }
+        }
+        memberRepository.saveAllBatched(members, 100);
+        return members;
+    }
+}
@@ -0,0 +1,90 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.Hibernate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 팀 2개 x 회원 membersPerTeam명 - 회원 한 명을 다른 팀으로 옮기고 flush (롤백)
+// Team.members가 EXTRA라 로딩 안 된 컬렉션은 회원 한 명의 존재 확인(pk 조회)만 하고 변경은 쌓아둔다. (팀 크기와 상관 없음)
+// Set + 기본 지연 로딩이면 add/remove가 컬렉션을 통째로 로딩한다. (팀이 클수록 느려짐)
+// 비교: 이전 커밋에서 같은 벤치마크 실행
+// 2차 캐시는 끄고 측정 (매번 DB에서 읽도록)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChangeTeamBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    int membersPerTeam;
+
+    ConfigurableApplicationContext context;
+    EntityManager em;
+    TransactionTemplate transactionTemplate;
+    List<Member> members;
+    Long teamAId;
+    Long teamBId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        em = context.getBean(EntityManager.class);  //트랜잭션에 묶이는 공유 EntityManager
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        members = BenchmarkContext.seed(context, 2, membersPerTeam);
+        teamAId = members.get(0).getTeam().getId();
+        teamBId = members.get(members.size() - 1).getTeam().getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // 팀 A의 회원을 팀 B로
+    @Benchmark
+    public boolean changeTeam() {
+        Long memberId = members.get(ThreadLocalRandom.current().nextInt(membersPerTeam)).getId();
+        return transactionTemplate.execute(status -> {
+            Team teamB = em.find(Team.class, teamBId);
+            Member member = em.find(Member.class, memberId);
+            member.changeTeam(teamB);
+            em.flush();
+            status.setRollbackOnly();
+            return member.getTeam() == teamB;
+        });
+    }
+
+    // 두 팀의 컬렉션이 이미 로딩된 경우 - List였을 때는 이전 팀에서 제거가 O(n)
+    @Benchmark
+    public boolean changeTeamLoadedMembers() {
+        Long memberId = members.get(ThreadLocalRandom.current().nextInt(membersPerTeam)).getId();
+        return transactionTemplate.execute(status -> {
+            Team teamA = em.find(Team.class, teamAId);
+            Team teamB = em.find(Team.class, teamBId);
+            Hibernate.initialize(teamA.getMembers());
+            Hibernate.initialize(teamB.getMembers());
+            Member member = em.find(Member.class, memberId);
+            member.changeTeam(teamB);
+            em.flush();
+            status.setRollbackOnly();
+            return teamB.getMembers().contains(member);
+        });
+    }
+}
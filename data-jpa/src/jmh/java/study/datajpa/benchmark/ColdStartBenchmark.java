@@ -0,0 +1,60 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+// 배포 직후 첫 호출 지연 - 매번 새 JVM에서 애플리케이션을 띄우고 첫 호출 한 번만 잰다.
+// warmUp=false가 예전 상태, true가 QueryWarmUp(execute 모드) 사용
+// 정상 상태(두 번째 이후 호출) 시간은 MemberQueryBenchmark 참고
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class ColdStartBenchmark {
+
+    @Param({"false", "true"})
+    boolean warmUp;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("datajpa.warm-up.enabled=" + warmUp, "datajpa.warm-up.execute=true");
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // /members 기본 (count=exact)
+    @Benchmark
+    public Object firstMemberPage() {
+        return memberRepository.findMemberDtoPage(PageRequest.of(0, 5));
+    }
+
+    // 메소드 이름 쿼리는 첫 호출 때 JPQL을 만든다.
+    @Benchmark
+    public Object firstDerivedQuery() {
+        return memberRepository.findByUsernameAndAgeGreaterThan("user1", 0);
+    }
+}
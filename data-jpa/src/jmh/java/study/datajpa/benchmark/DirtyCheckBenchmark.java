@@ -0,0 +1,99 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 변경이 거의 없는 큰 영속성 컨텍스트의 flush 비용과 엔티티당 힙
+//  flushClean    - 아무것도 안 바꾸고 flush (향상 전: 모든 엔티티의 모든 필드를 스냅샷과 비교)
+//  flushOneDirty - 한명만 바꾸고 flush
+// 향상 전후 비교  ./gradlew jmh -PjmhIncludes=DirtyCheckBenchmark  /  ./gradlew jmh -PjmhIncludes=DirtyCheckBenchmark -PnoEnhance
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DirtyCheckBenchmark {
+
+    @Param({"10000", "100000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    EntityManager em;
+    List<Member> members;
+
+    long heapSamples;
+    long heapBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        emf = context.getBean(EntityManagerFactory.class);
+        BenchmarkContext.seed(context, 100, rows / 100);
+        System.out.println("enhanced = " + SelfDirtinessTracker.class.isAssignableFrom(Member.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (heapSamples > 0) {
+            System.out.println("heap per managed member ~ " + heapBytes / heapSamples / rows + " bytes");
+        }
+        context.close();
+    }
+
+    // 매번 새 영속성 컨텍스트에 rows명(팀 포함)을 올려둔다. (측정에서 제외)
+    @Setup(Level.Invocation)
+    public void load() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        members = em.createQuery("select m from Member m left join fetch m.team", Member.class)
+                .setMaxResults(rows)
+                .getResultList();
+
+        System.gc();
+        heapBytes += memory.getHeapMemoryUsage().getUsed() - before;
+        heapSamples++;
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        em.getTransaction().rollback();
+        em.close();
+        members = null;
+    }
+
+    @Benchmark
+    public int flushClean() {
+        em.flush();
+        return members.size();
+    }
+
+    @Benchmark
+    public int flushOneDirty() {
+        Member member = members.get(members.size() / 2);
+        member.setAge(member.getAge() + 1);
+        em.flush();
+        return members.size();
+    }
+}
@@ -0,0 +1,66 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+import study.datajpa.service.MemberAgeService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 여러 스레드가 적은 수의 회원(hotMembers)을 동시에 수정할 때 처리량
+//  optimistic  - @Version + RetryExecutor
+//  pessimistic - select ... for update
+// 스레드 수는 @Threads (8)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class MemberContentionBenchmark {
+
+    @Param({"1", "10", "100"})
+    int hotMembers;
+
+    ConfigurableApplicationContext context;
+    MemberAgeService memberAgeService;
+    Long[] ids;
+
+    @Setup
+    public void setUp() {
+        // 충돌이 많아도 포기하지 않도록 재시도 횟수를 늘린다. 커넥션은 스레드 수보다 많게
+        context = BenchmarkContext.start("datajpa.retry.max-attempts=1000",
+                "spring.datasource.hikari.maximum-pool-size=16");
+        memberAgeService = context.getBean(MemberAgeService.class);
+        List<Member> members = BenchmarkContext.seed(context, 1, hotMembers);
+        ids = members.stream().map(Member::getId).toArray(Long[]::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int optimistic() {
+        return memberAgeService.increaseAge(hotMember(), 1);
+    }
+
+    @Benchmark
+    public int pessimistic() {
+        return memberAgeService.increaseAgeLocked(hotMember(), 1);
+    }
+
+    private Long hotMember() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,58 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// findByNames - in 절 크기별 조회 시간 (파라미터 padding 유무 비교, 1024개 넘으면 나눠서 조회)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberInListBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    int size;
+
+    @Param({"true", "false"})
+    boolean padding;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    List<String> names;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("spring.jpa.properties.hibernate.query.in_clause_parameter_padding=" + padding);
+        memberRepository = context.getBean(MemberRepository.class);
+        BenchmarkContext.seed(context, 20, 100);
+
+        //절반은 있는 이름, 절반은 없는 이름
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(i % 2 == 0 ? "team" + (i % 20) + "-member" + (i % 100) : "none" + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> findByNames() {
+        return memberRepository.findByNames(names);
+    }
+}
@@ -0,0 +1,70 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 커넥션 풀 크기별 처리량(Throughput)과 지연 시간 분포(SampleTime - p50, p99 ...)
+// 32개 스레드가 동시에 조회 - 풀이 작으면 커넥션 대기, 크면 DB 쪽 경합
+// queryCacheSize는 H2의 커넥션별 prepared statement 캐시 (운영 프로필은 256)
+// 운영 DB로 재려면 spring.datasource.url을 바꿔서 실행 (메모리 H2는 네트워크 왕복이 없어서 풀 크기 영향이 작게 나온다)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+public class MemberPoolBenchmark {
+
+    @Param({"2", "5", "10", "20", "40"})
+    int poolSize;
+
+    @Param({"8", "256"})
+    int queryCacheSize;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    Long[] ids;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=" + queryCacheSize,
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "spring.datasource.hikari.minimum-idle=" + poolSize,
+                "spring.datasource.hikari.connection-timeout=30000",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        memberRepository = context.getBean(MemberRepository.class);
+        List<Member> members = BenchmarkContext.seed(context, 10, 1_000);
+        ids = members.stream().map(Member::getId).toArray(Long[]::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object findById() {
+        return memberRepository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public Object findMemberDtoPage() {
+        return memberRepository.findMemberDtoPage(PageRequest.of(ThreadLocalRandom.current().nextInt(100), 20));
+    }
+}
@@ -0,0 +1,94 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 조회 쿼리 - findByUsername, findByAge 페이징, fetch join / EntityGraph / 지연 로딩 비교
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberQueryBenchmark {
+
+    private static final int TEAMS = 20;
+    private static final int MEMBERS_PER_TEAM = 100;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        BenchmarkContext.seed(context, TEAMS, MEMBERS_PER_TEAM);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> findByUsername() {
+        return memberRepository.findByUsername("team7-member42");
+    }
+
+    @Benchmark
+    public List<Member> findByUsernameJpa() {
+        return transactionTemplate.execute(status -> memberJpaRepository.findByUsername("team7-member42"));
+    }
+
+    @Benchmark
+    public Page<Member> findByAgeFirstPage() {
+        return memberRepository.findByAge(10, PageRequest.of(0, 20, Sort.by("username")));
+    }
+
+    @Benchmark
+    public Page<Member> findByAgeDeepPage() {
+        return memberRepository.findByAge(10, PageRequest.of(90, 20, Sort.by("username")));
+    }
+
+    // 회원과 팀을 한 쿼리로
+    @Benchmark
+    public void findMemberFetchJoin(Blackhole blackhole) {
+        transactionTemplate.executeWithoutResult(status -> touchTeams(memberRepository.findMemberFetchJoin(), blackhole));
+    }
+
+    @Benchmark
+    public void findAllEntityGraph(Blackhole blackhole) {
+        transactionTemplate.executeWithoutResult(status -> touchTeams(memberRepository.findAll(), blackhole));
+    }
+
+    // 팀을 지연 로딩 (N+1)
+    @Benchmark
+    public void findAllLazy(Blackhole blackhole) {
+        transactionTemplate.executeWithoutResult(status -> touchTeams(memberRepository.findMemberCustom(), blackhole));
+    }
+
+    private void touchTeams(List<Member> members, Blackhole blackhole) {
+        for (Member member : members) {
+            blackhole.consume(member.getTeam().getName());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberSearchIndex;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 회원 10만 명에서 이름 검색 - 메모리 인덱스 vs DB like
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberSearchBenchmark {
+
+    ConfigurableApplicationContext context;
+    MemberSearchIndex memberSearchIndex;
+    MemberRepository memberRepository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberSearchIndex = context.getBean(MemberSearchIndex.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        BenchmarkContext.seed(context, 100, 1_000);   //team12-member345 형식
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> indexPrefix() {
+        return memberSearchIndex.searchIds("team42-member1", false, 20);
+    }
+
+    @Benchmark
+    public List<Long> indexContains() {
+        return memberSearchIndex.searchIds("member777", true, 20);
+    }
+
+    @Benchmark
+    public List<Long> dbPrefix() {
+        return memberRepository.searchIdsByUsername("team42-member1%", PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<Long> dbContains() {
+        return memberRepository.searchIdsByUsername("%member777%", PageRequest.of(0, 20));
+    }
+}
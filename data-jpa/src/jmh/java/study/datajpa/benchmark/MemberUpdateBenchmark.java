@@ -0,0 +1,93 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.support.QueryCountHolder;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 엔티티 변경감지 update - 1000명을 조회해서 바꾸고 flush (매번 롤백)
+//  updateAge   - 전부 age만 변경 (모두 같은 update 문 -> 한 배치)
+//  updateMixed - 짝수는 age, 홀수는 username 변경 (@DynamicUpdate면 update 문이 두 모양)
+//  updateNone  - 같은 값으로 set (update 없음)
+// @DynamicUpdate 전후 비교는 Member의 @DynamicUpdate를 빼고 다시 돌린다.
+// 마지막 update 문 길이(statement width)를 TearDown에서 출력한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberUpdateBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate transactionTemplate;
+    EntityManager em;
+    String lastUpdateSql;
+
+    @Setup
+    public void setUp() {
+        // 2차 캐시 put 비용은 빼고 update만 본다.
+        context = BenchmarkContext.start("spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        em = context.getBean(EntityManager.class);  //트랜잭션에 묶이는 공유 EntityManager
+        BenchmarkContext.seed(context, 10, ROWS / 10);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println("update sql (" + (lastUpdateSql == null ? 0 : lastUpdateSql.length()) + " chars) " + lastUpdateSql);
+        context.close();
+    }
+
+    @Benchmark
+    public Integer updateAge() {
+        return update(false, false);
+    }
+
+    @Benchmark
+    public Integer updateMixed() {
+        return update(true, false);
+    }
+
+    @Benchmark
+    public Integer updateNone() {
+        return update(false, true);
+    }
+
+    private Integer update(boolean mixed, boolean same) {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            List<Member> members = em.createQuery("select m from Member m", Member.class)
+                    .setMaxResults(ROWS)
+                    .getResultList();
+            for (int i = 0; i < members.size(); i++) {
+                Member member = members.get(i);
+                if (same) {
+                    member.setAge(member.getAge());
+                } else if (mixed && i % 2 == 1) {
+                    member.setUsername(member.getUsername() + "!");
+                } else {
+                    member.setAge(member.getAge() + 1);
+                }
+            }
+            QueryCountHolder.reset();
+            em.flush();
+            if (QueryCountHolder.get().getTotal() > 0) {
+                lastUpdateSql = QueryCountHolder.get().getLastSql();
+            }
+            return members.size();
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 쓰기 - bulkAgePlus, 한건씩 save vs 배치 save
+// 데이터 크기가 계속 변하지 않도록 매번 롤백한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberWriteBenchmark {
+
+    private static final int SAVE_ROWS = 1_000;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        BenchmarkContext.seed(context, 20, 500);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer bulkAgePlus() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return memberRepository.bulkAgePlus(50);
+        });
+    }
+
+    @Benchmark
+    public Integer bulkAgePlusJpa() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return memberJpaRepository.bulkAgePlus(50);
+        });
+    }
+
+    @Benchmark
+    public Integer save() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            List<Member> members = newMembers();
+            for (Member member : members) {
+                memberRepository.save(member);
+            }
+            memberRepository.flush();
+            return members.size();
+        });
+    }
+
+    @Benchmark
+    public Integer saveAllBatched() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return memberRepository.saveAllBatched(newMembers(), 100);
+        });
+    }
+
+    private List<Member> newMembers() {
+        List<Member> members = new ArrayList<>(SAVE_ROWS);
+        for (int i = 0; i < SAVE_ROWS; i++) {
+            members.add(new Member("write" + i, i % 100));
+        }
+        return members;
+    }
+}
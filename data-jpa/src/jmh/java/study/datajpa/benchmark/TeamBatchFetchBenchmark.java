@@ -0,0 +1,76 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.Hibernate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.concurrent.TimeUnit;
+
+// 팀 1,000개 x 회원 50명 - 팀 페이지(100개)를 읽고 각 팀의 members를 사용
+// batchFetchSize=1 이 기존 동작 (팀마다 select 1번)
+// 2차 캐시는 끄고 측정 (매번 DB에서 읽도록)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TeamBatchFetchBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1", "100"})
+    int batchFetchSize;
+
+    ConfigurableApplicationContext context;
+    TeamRepository teamRepository;
+    TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.jpa.properties.hibernate.default_batch_fetch_size=" + batchFetchSize,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        teamRepository = context.getBean(TeamRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        BenchmarkContext.seed(context, 1_000, 50);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // 팀 페이지 조회 후 지연 로딩
+    @Benchmark
+    public Integer lazyMembers() {
+        return transactionTemplate.execute(status -> {
+            int count = 0;
+            for (Team team : teamRepository.findAll(PageRequest.of(3, PAGE_SIZE))) {
+                Hibernate.initialize(team.getMembers());    //members는 EXTRA라 size()만 하면 count 쿼리
+                count += team.getMembers().size();
+            }
+            return count;
+        });
+    }
+
+    // id 페이징 + members fetch join
+    @Benchmark
+    public Integer findPageWithMembers() {
+        int count = 0;
+        for (Team team : teamRepository.findPageWithMembers(PageRequest.of(3, PAGE_SIZE))) {
+            count += team.getMembers().size();
+        }
+        return count;
+    }
+}
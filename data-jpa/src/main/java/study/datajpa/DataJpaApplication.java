@@ -2,23 +2,16 @@ package study.datajpa;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
-
-import java.util.Optional;
-import java.util.UUID;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing	//꼭 넣어줘야 BaseEntity사용 가능
+@EnableScheduling	//팀 통계 맞추기(TeamStatsService.reconcile) 등 @Scheduled
 public class DataJpaApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(DataJpaApplication.class, args);
 	}
-	//사용하려면 암기
-	@Bean
-	public AuditorAware<String> auditorProvider() {
-		return () -> Optional.of(UUID.randomUUID().toString());
-	}
+	//등록자, 수정자는 AuditConfig의 auditorProvider (요청마다 한번 정한 사용자를 재사용)
 }
@@ -0,0 +1,56 @@
+package study.datajpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 리포지토리 비동기 메소드(@Async("repositoryExecutor"))가 실행될 Executor
+@Slf4j
+@EnableAsync
+@Configuration
+@EnableConfigurationProperties(AsyncProperties.class)
+public class AsyncConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedExecutor repositoryExecutor(AsyncProperties properties) {
+        ExecutorService delegate = properties.isVirtualThreads()
+                ? VirtualThreads.newVirtualThreadPerTaskExecutor().orElse(null)
+                : null;
+        if (delegate == null) {
+            delegate = Executors.newFixedThreadPool(properties.getMaxConcurrency());
+        }
+        log.info("repositoryExecutor - 가상 스레드 {}, 동시 실행 {}, 대기 {}", VirtualThreads.isAvailable() && properties.isVirtualThreads(),
+                properties.getMaxConcurrency(), properties.getMaxPending());
+        return new BoundedExecutor(delegate, properties.getMaxConcurrency(), properties.getMaxPending());
+    }
+
+    // repositoryExecutor가 Executor 빈이라 부트의 기본 applicationTaskExecutor(@ConditionalOnMissingBean(Executor.class))가 빠진다.
+    // 그러면 이름 없는 @Async와 MVC 비동기 처리가 SimpleAsyncTaskExecutor(요청마다 새 스레드)로 가기 때문에 직접 등록한다.
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    // 톰캣 요청 스레드를 가상 스레드로 (JDK 21 이상 + datajpa.async.virtual-threads-web=true)
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(AsyncProperties properties) {
+        return protocolHandler -> {
+            if (properties.isVirtualThreadsWeb()) {
+                VirtualThreads.newVirtualThreadPerTaskExecutor().ifPresent(protocolHandler::setExecutor);
+            }
+        };
+    }
+}
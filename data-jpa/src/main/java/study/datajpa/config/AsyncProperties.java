@@ -0,0 +1,18 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties("datajpa.async")
+public class AsyncProperties {
+
+    // JDK 21 이상이면 가상 스레드 사용 (아니면 일반 스레드 풀)
+    private boolean virtualThreads = true;
+    // 톰캣 요청 처리도 가상 스레드로
+    private boolean virtualThreadsWeb = false;
+    // 동시에 DB를 사용하는 비동기 작업 수 - 커넥션 풀 크기(hikari maximum-pool-size 기본 10) 이하
+    private int maxConcurrency = 10;
+    private int maxPending = 1_000;
+}
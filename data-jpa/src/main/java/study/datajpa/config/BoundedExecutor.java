@@ -0,0 +1,75 @@
+package study.datajpa.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.Semaphore;
+
+// 동시에 DB를 사용하는 작업 수(maxConcurrency)와 대기 작업 수(maxPending)를 제한하는 Executor
+// 가상 스레드는 거의 무한히 만들 수 있어서 제한이 없으면 전부 커넥션 풀 앞에서 대기하다가 타임아웃이 난다.
+// maxConcurrency는 커넥션 풀 크기 이하로 두고, maxPending을 넘으면 바로 거절해서 호출한 쪽이 알 수 있게 한다.
+public class BoundedExecutor implements Executor {
+
+    private final ExecutorService delegate;
+    private final Semaphore running;
+    private final Semaphore pending;
+    private final int maxPending;
+
+    public BoundedExecutor(ExecutorService delegate, int maxConcurrency, int maxPending) {
+        this.delegate = delegate;
+        this.running = new Semaphore(maxConcurrency);
+        this.pending = new Semaphore(maxPending);
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!pending.tryAcquire()) {
+            throw new RejectedExecutionException("대기 작업이 " + maxPending + "개를 넘었습니다.");
+        }
+        try {
+            delegate.execute(() -> runBounded(task));
+        } catch (RejectedExecutionException e) {
+            pending.release();
+            throw e;
+        }
+    }
+
+    private void runBounded(Runnable task) {
+        boolean acquired = false;
+        try {
+            running.acquire();
+            acquired = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (acquired) {
+                task.run();
+            } else {
+                abandon(task);
+            }
+        } finally {
+            if (acquired) {
+                running.release();
+            }
+            pending.release();
+        }
+    }
+
+    // 실행 순서를 기다리다 인터럽트(종료 등) - 그냥 버리면 결과를 기다리는 쪽(@Async의 CompletableFuture, CoalescingLoader)이 끝나지 않는다.
+    // FutureTask면 취소하고, 취소할 방법이 없으면 (supplyAsync의 작업, 람다) 인터럽트 상태 그대로 실행해서 결과든 예외든 완료시킨다.
+    // (인터럽트 상태면 커넥션을 얻을 때 바로 실패한다.)
+    private void abandon(Runnable task) {
+        if (task instanceof RunnableFuture) {
+            ((RunnableFuture<?>) task).cancel(true);
+        } else {
+            task.run();
+        }
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+}
@@ -0,0 +1,111 @@
+package study.datajpa.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.support.CoalescingLoader;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+// @PathVariable("id") Member member 처럼 id -> 엔티티 변환을 DomainClassConverter(요청마다 findById) 대신
+// 2차 캐시 확인 -> 없으면 동시에 들어온 id를 모아서 findAllById 한 번으로 조회한다. (CoalescingLoader)
+// 요청의 영속성 컨텍스트가 아닌 별도 트랜잭션에서 조회하기 때문에 준영속 엔티티이고 여러 요청이 같은 인스턴스를 받을 수 있다.
+// -> 읽기 용도로만 사용 (지연 로딩 x, 수정 x)
+@Configuration
+@EnableConfigurationProperties(DomainConverterProperties.class)
+@ConditionalOnProperty(name = "datajpa.converter.enabled", havingValue = "true", matchIfMissing = true)
+public class DomainConverterConfig implements WebMvcConfigurer {
+
+    private final DomainConverterProperties properties;
+    private final EntityManagerFactory emf;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final BoundedExecutor repositoryExecutor;
+
+    public DomainConverterConfig(DomainConverterProperties properties, EntityManagerFactory emf,
+                                 PlatformTransactionManager transactionManager, MemberRepository memberRepository,
+                                 TeamRepository teamRepository, BoundedExecutor repositoryExecutor) {
+        this.properties = properties;
+        this.emf = emf;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.memberRepository = memberRepository;
+        this.teamRepository = teamRepository;
+        this.repositoryExecutor = repositoryExecutor;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public CoalescingLoader<Long, Member> memberLoader() {
+        return newLoader(Member.class, memberRepository, Member::getId);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public CoalescingLoader<Long, Team> teamLoader() {
+        return newLoader(Team.class, teamRepository, Team::getId);
+    }
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, Member.class, converter(memberLoader()));
+        registry.addConverter(String.class, Team.class, converter(teamLoader()));
+    }
+
+    private <T> CoalescingLoader<Long, T> newLoader(Class<T> type, JpaRepository<T, Long> repository, Function<T, Long> idOf) {
+        return new CoalescingLoader<>(ids -> readOnlyTransaction.execute(status -> {
+            Map<Long, T> result = new HashMap<>();
+            List<Long> misses = new ArrayList<>();
+            for (Long id : ids) {
+                if (emf.getCache().contains(type, id)) {
+                    repository.findById(id).ifPresent(entity -> result.put(id, entity));   //2차 캐시 적중 - SQL 없음
+                } else {
+                    misses.add(id);
+                }
+            }
+            if (!misses.isEmpty()) {
+                repository.findAllById(misses).forEach(entity -> result.put(idOf.apply(entity), entity));
+            }
+            return result;
+        }), repositoryExecutor, properties.getWindowMicros(), properties.getMaxBatch());
+    }
+
+    // 컨버터에서 던진 예외는 전부 ConversionFailedException -> MethodArgumentTypeMismatchException(400)으로 감싸진다.
+    // 숫자가 아닌 id만 400이고, 조회 실패는 상태를 담은 ResponseStatusException으로 던져서 ConverterExceptionAdvice가 꺼내 쓴다.
+    private <T> Converter<String, T> converter(CoalescingLoader<Long, T> loader) {
+        return source -> {
+            if (source.isEmpty()) {
+                return null;
+            }
+            Long id = Long.valueOf(source);     //NumberFormatException -> 400
+            try {
+                return loader.load(id).join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof RejectedExecutionException) {     //repositoryExecutor 대기 작업 초과 - 과부하
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "조회 요청이 많습니다. 잠시 후 다시 시도하세요.", cause);
+                }
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "조회에 실패했습니다. id = " + id, cause);
+            }
+        };
+    }
+}
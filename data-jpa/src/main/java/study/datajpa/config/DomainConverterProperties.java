@@ -0,0 +1,16 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties("datajpa.converter")
+public class DomainConverterProperties {
+
+    private boolean enabled = true;
+    // 이 시간(마이크로초) 동안 들어온 조회를 모아서 한 번에 조회 - 늘리면 쿼리 수는 줄고 응답은 그만큼 늦어진다.
+    private long windowMicros = 1_000;
+    // in 절 하나에 넣을 최대 id 수
+    private int maxBatch = 500;
+}
@@ -0,0 +1,52 @@
+package study.datajpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+// 주기적으로 복제본에 접속해서 살아있는지, 복제 지연이 허용 범위인지 확인
+// 문제가 있는 복제본은 빼고 (읽기는 primary로), 회복되면 다시 넣는다.
+@Slf4j
+public class ReplicaHealthChecker {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final List<RoutingDataSourceProperties.Replica> replicas;
+
+    public ReplicaHealthChecker(ReplicaRoutingDataSource routingDataSource, List<RoutingDataSourceProperties.Replica> replicas) {
+        this.routingDataSource = routingDataSource;
+        this.replicas = replicas;
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.datasource.routing.health-check-interval-ms:5000}")
+    public void check() {
+        List<String> keys = routingDataSource.getReplicaKeys();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            boolean healthy = isHealthy(key, replicas.get(i));
+            if (healthy != routingDataSource.isHealthy(key)) {
+                log.warn("복제본 {} 상태 변경 -> {}", key, healthy ? "정상 (읽기 라우팅 재개)" : "비정상 (primary로 대체)");
+            }
+            routingDataSource.markHealthy(key, healthy);
+        }
+    }
+
+    private boolean isHealthy(String key, RoutingDataSourceProperties.Replica replica) {
+        try (Connection connection = routingDataSource.getReplica(key).getConnection()) {
+            if (replica.getLagQuery() == null) {
+                return connection.isValid(1);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(replica.getLagQuery())) {
+                double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                return lagSeconds <= replica.getMaxLagSeconds();
+            }
+        } catch (Exception e) {
+            log.debug("복제본 {} 확인 실패", key, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// @Transactional(readOnly = true)면 정상인 복제본 중 하나로 (라운드 로빈), 아니면 primary로 보낸다.
+// 정상인 복제본이 없으면 읽기도 primary로 보낸다.
+// 트랜잭션 시작 후 실제 쿼리 시점에 결정해야 하므로 LazyConnectionDataSourceProxy로 감싸서 사용해야 한다.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys;
+    private final AtomicBoolean[] healthy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, MeterRegistry meterRegistry) {
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.healthy = new AtomicBoolean[replicaKeys.size()];
+        MeterRegistry registry = meterRegistry == null ? Metrics.globalRegistry : meterRegistry;
+        for (int i = 0; i < healthy.length; i++) {
+            healthy[i] = new AtomicBoolean(true);
+            AtomicBoolean state = healthy[i];
+            registry.gauge("datajpa.datasource.replica.healthy", List.of(Tag.of("pool", replicaKeys.get(i))),
+                    state, s -> s.get() ? 1 : 0);
+        }
+        for (Object key : targets.keySet()) {
+            routed.put((String) key, registry.counter("datajpa.datasource.routing", "target", (String) key));
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? pickReplica() : PRIMARY;
+        routed.get(key).increment();
+        return key;
+    }
+
+    private String pickReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (healthy[index].get()) {
+                return replicaKeys.get(index);
+            }
+        }
+        return PRIMARY;
+    }
+
+    public List<String> getReplicaKeys() {
+        return replicaKeys;
+    }
+
+    public void markHealthy(String replicaKey, boolean value) {
+        healthy[replicaKeys.indexOf(replicaKey)].set(value);
+    }
+
+    public boolean isHealthy(String replicaKey) {
+        return healthy[replicaKeys.indexOf(replicaKey)].get();
+    }
+
+    public DataSource getReplica(String replicaKey) {
+        return (DataSource) getResolvedDataSources().get(replicaKey);
+    }
+}
@@ -0,0 +1,16 @@
+package study.datajpa.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(RetryProperties.class)
+public class RetryConfig {
+
+    @Bean
+    public RetryExecutor retryExecutor(RetryProperties properties, PlatformTransactionManager transactionManager) {
+        return new RetryExecutor(properties, transactionManager);
+    }
+}
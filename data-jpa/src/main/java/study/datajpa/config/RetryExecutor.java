@@ -0,0 +1,56 @@
+package study.datajpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// 낙관적 락 충돌(@Version), 락 타임아웃이 나면 새 트랜잭션으로 처음부터 다시 실행한다.
+// 매번 새 트랜잭션(REQUIRES_NEW) + 새 영속성 컨텍스트에서 다시 조회해야 최신 version으로 바꿀 수 있다.
+// work 안에서는 엔티티를 다시 조회해서 바꿔야 한다. (밖에서 조회한 엔티티를 넘기면 매번 같은 version으로 실패)
+@Slf4j
+public class RetryExecutor {
+
+    private final RetryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public RetryExecutor(RetryProperties properties, PlatformTransactionManager transactionManager) {
+        if (properties.getMaxAttempts() < 1) {
+            throw new IllegalArgumentException("datajpa.retry.max-attempts는 1 이상이어야 합니다.");
+        }
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        long backoff = properties.getInitialBackoffMs();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException | OptimisticLockException e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    log.warn("동시 수정 충돌 - {}번 시도 후 포기", attempt);
+                    throw e;
+                }
+                log.debug("동시 수정 충돌 - {}번째 재시도 ({})", attempt, e.getMessage());
+                sleep(ThreadLocalRandom.current().nextLong(backoff + 1));
+                backoff = Math.min((long) (backoff * properties.getMultiplier()), properties.getMaxBackoffMs());
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 대기 중 인터럽트", e);
+        }
+    }
+}
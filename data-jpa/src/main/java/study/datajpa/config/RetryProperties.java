@@ -0,0 +1,18 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties("datajpa.retry")
+public class RetryProperties {
+
+    // 처음 실행 포함 최대 시도 횟수
+    private int maxAttempts = 5;
+    // 재시도 전 대기 - 처음 initialBackoffMs, 실패할 때마다 multiplier배 (최대 maxBackoffMs)
+    // 여러 스레드가 같은 시점에 다시 부딪히지 않도록 0 ~ 대기시간 사이에서 랜덤으로 기다린다.
+    private long initialBackoffMs = 10;
+    private double multiplier = 2.0;
+    private long maxBackoffMs = 200;
+}
@@ -0,0 +1,32 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 읽기 전용 트랜잭션은 복제본(replica)으로, 나머지는 spring.datasource(primary)로
+@Getter @Setter
+@ConfigurationProperties("datajpa.datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    // 복제본 상태(접속, 지연) 확인 주기
+    private long healthCheckIntervalMs = 5_000;
+
+    @Getter @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        // 복제 지연(초)을 반환하는 쿼리 - 예) PostgreSQL: select extract(epoch from now() - pg_last_xact_replay_timestamp())
+        // 없으면 접속 가능 여부만 확인
+        private String lagQuery;
+        // 지연이 이 값보다 크면 primary로 보낸다.
+        private double maxLagSeconds = 5;
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.config;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+// 빌드는 자바 11 기준이라 가상 스레드 API를 직접 호출할 수 없어서 리플렉션으로 찾는다. (JDK 21 이상에서만 사용 가능)
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return factoryMethod() != null;
+    }
+
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        Method method = factoryMethod();
+        if (method == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) method.invoke(null));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("가상 스레드 Executor 생성 실패", e);
+        }
+    }
+
+    private static Method factoryMethod() {
+        try {
+            return java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package study.datajpa.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// @PathVariable("id") Member 변환 중 조회가 실패하면 (DomainConverterConfig) 스프링은 전부 400으로 응답한다.
+// 원인에 ResponseStatusException이 있으면 그 상태로 응답 (과부하 503, DB 오류 500), 없으면 원래대로 400
+@RestControllerAdvice
+public class ConverterExceptionAdvice {
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public void typeMismatch(MethodArgumentTypeMismatchException e, HttpServletResponse response) throws IOException {
+        ResponseStatusException cause = findCause(e);
+        if (cause == null) {
+            throw e;    //같은 예외를 던지면 다음 리졸버(DefaultHandlerExceptionResolver)가 400으로 처리
+        }
+        if (cause.getStatus() == HttpStatus.SERVICE_UNAVAILABLE) {
+            response.setHeader("Retry-After", "1");
+        }
+        response.sendError(cause.getRawStatusCode(), cause.getReason());
+    }
+
+    private ResponseStatusException findCause(Throwable e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ResponseStatusException) {
+                return (ResponseStatusException) cause;
+            }
+        }
+        return null;
+    }
+}
@@ -1,23 +1,47 @@
 package study.datajpa.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.dto.CursorPage;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberExportService;
+import study.datajpa.service.MemberSearchIndex;
+import study.datajpa.support.CountCache;
 
 import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController // 객체로 반환
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_CURSOR_SIZE = 2000;   // yml의 max-page-size와 맞춤
+    private static final int MAX_SEARCH_SIZE = 100;
+
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
+    private final CountCache countCache;
+    private final MemberSearchIndex memberSearchIndex;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
@@ -25,26 +49,113 @@ public class MemberController {
         return member.getUsername();
     }
 
+    //id -> Member 변환은 DomainConverterConfig (2차 캐시 + 동시 요청을 모아서 한 번에 조회)
     @GetMapping("/members2/{id}")
     public String findMember(@PathVariable("id") Member member) {
         return member.getUsername();
     }
 
+    //비동기 - 조회가 끝날 때까지 요청 스레드(톰캣)를 잡고 있지 않는다.
+    @GetMapping("/members/async/{id}")
+    public CompletableFuture<ResponseEntity<String>> findMemberAsync(@PathVariable("id") Long id) {
+        return memberRepository.findAsyncById(id)
+                .thenApply(member -> member == null
+                        ? ResponseEntity.notFound().build()
+                        : ResponseEntity.ok(member.getUsername()));
+    }
+
     //페이징 처리  /members?page=1&size=3&sort=id,desc    1페이지에서 3개만 불러와라
     //default는 20개인데 10개로 바꾸고 싶다면 yml에 가서 추가
     //@PageableDefault는 이 메소드에만 적용시키고 싶다 할때 사용한다.
     //@Qualifier를 통하여 두개의 페이징 처리도 가능하다.
     //MemberDto::new   파라미터를 멤버로 설정하여 생성
+    //엔티티를 조회해서 DTO로 바꾸지 않고 처음부터 DTO로 조회 (팀 이름까지 한 쿼리)
+    //count 파라미터로 전체 개수를 어떻게 구할지 고른다.
+    //  exact  - 매번 count 쿼리 (기본, 첫 페이지인데 size보다 적게 조회되면 스프링 데이터가 count를 생략한다)
+    //  cached - count 결과를 잠깐 저장해두고 재사용 (회원이 바뀌면 비움, CountCache)
+    //  none   - count 쿼리 없이 Slice (다음 페이지 여부만)
     @GetMapping("/members")
-    public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable) {   //page리퀘스트 객체를 생성해서 값을 인젝션 해준다.
-        return memberRepository.findAll(pageable).map(MemberDto::new);
+    public Slice<MemberDto> list(@PageableDefault(size = 5) Pageable pageable,   //page리퀘스트 객체를 생성해서 값을 인젝션 해준다.
+                                 @RequestParam(value = "count", defaultValue = "exact") String count) {
+        if ("none".equalsIgnoreCase(count)) {
+            return memberRepository.findMemberDtoSlice(pageable);
+        }
+        if ("cached".equalsIgnoreCase(count)) {
+            //Slice로 조회하고 전체 개수만 캐시에서 - 마지막 페이지처럼 개수를 계산할 수 있으면 캐시도 안 본다.
+            Slice<MemberDto> slice = memberRepository.findMemberDtoSlice(pageable);
+            return PageableExecutionUtils.getPage(slice.getContent(), pageable,
+                    () -> countCache.get(CountCache.MEMBER, "findMemberDtoPage", memberRepository::count));
+        }
+        if ("exact".equalsIgnoreCase(count)) {
+            return memberRepository.findMemberDtoPage(pageable);
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지원하지 않는 count 입니다. count = " + count);
+    }
+
+    //커서 기반 페이징  /members/cursor?size=5  ->  응답의 nextCursor를 /members/cursor?cursor=...&size=5 로 넘긴다.
+    //offset 페이징은 뒤 페이지로 갈수록 느려지고 매번 count 쿼리가 나가는데 커서 방식은 둘 다 없다.
+    @GetMapping("/members/cursor")
+    public CursorPage<MemberDto> listByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "size", defaultValue = "5") int size) {
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_SIZE));
+        Long lastId;
+        try {
+            lastId = CursorPage.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            //클라이언트가 보낸 커서가 잘못된 경우 - 500이 아니라 400
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        //다음 페이지가 있는지 확인하기 위해 1개 더 조회
+        List<MemberDto> rows = memberRepository.findMemberDtoByCursor(lastId, limit + 1);
+        return CursorPage.of(rows, limit, MemberDto::getId);
+    }
+
+    //이름 검색  /members/search?q=user1 (앞부분), /members/search?q=ser&mode=contains (포함)
+    //메모리 인덱스에서 id를 찾고 id로 한 번 조회 (팀 이름 포함)
+    @GetMapping("/members/search")
+    public List<MemberDto> search(@RequestParam("q") String q,
+                                  @RequestParam(value = "mode", defaultValue = "prefix") String mode,
+                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        if (!"prefix".equalsIgnoreCase(mode) && !"contains".equalsIgnoreCase(mode)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지원하지 않는 mode 입니다. mode = " + mode);
+        }
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_SIZE));
+        List<Long> ids = memberSearchIndex.searchIds(q, "contains".equalsIgnoreCase(mode), limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        //인덱스 순서(이름 순)대로
+        Map<Long, MemberDto> found = memberRepository.findMemberDtoByIdIn(ids).stream()
+                .collect(Collectors.toMap(MemberDto::getId, Function.identity()));
+        return ids.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    //회원 전체 내보내기  /members/export?format=ndjson (기본) 또는 csv
+    //조회하는 대로 응답 스트림에 바로 쓰기 때문에 회원이 많아도 메모리에 다 올리지 않는다.
+    @GetMapping("/members/export")
+    public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        response.setCharacterEncoding("UTF-8");
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv");
+            response.setHeader("Content-Disposition", "attachment; filename=\"members.csv\"");
+            memberExportService.exportCsv(response.getWriter());
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            response.setContentType("application/x-ndjson");
+            response.setHeader("Content-Disposition", "attachment; filename=\"members.ndjson\"");
+            memberExportService.exportNdjson(response.getWriter());
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지원하지 않는 형식입니다. format = " + format);
+        }
     }
 
     //애플리케이션 로딩 시점시 자동으로 생성시켜주는 것
     @PostConstruct
     public void init() {
+        List<Member> members = new ArrayList<>();
         for(int i=0; i< 100; i++) {
-            memberRepository.save(new Member("user" + i, i));
+            members.add(new Member("user" + i, i));
         }
+        memberRepository.saveAllBatched(members, 100);
     }
 }
@@ -0,0 +1,36 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.dto.TeamStatsDto;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.service.TeamStatsService;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamRepository teamRepository;
+    private final TeamStatsService teamStatsService;
+
+    //팀 회원 수, 평균 나이 - 메모리 카운터에서 바로 (Team.members를 로딩하지 않는다)
+    @GetMapping("/teams/{id}/stats")
+    public TeamStatsDto stats(@PathVariable("id") Long id) {
+        if (!teamRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "팀이 없습니다. id = " + id);
+        }
+        return teamStatsService.getStats(id);
+    }
+
+    //회원이 있는 팀 전체
+    @GetMapping("/teams/stats")
+    public List<TeamStatsDto> allStats() {
+        return teamStatsService.getAllStats();
+    }
+}
@@ -0,0 +1,50 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// 커서(키셋) 기반 페이징 응답
+// offset 대신 마지막으로 본 id를 커서로 넘겨서 다음 페이지를 조회한다.
+// count 쿼리를 날리지 않기 때문에 totalCount는 없고 다음 페이지 여부만 알려준다.
+@Getter
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;    // 다음 페이지 요청 시 그대로 넘겨주면 된다. (클라이언트 입장에서는 의미 없는 문자열)
+    private final boolean hasNext;
+
+    private CursorPage(List<T> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    // size + 1개를 조회해서 넘겨주면 1개가 더 있는지로 다음 페이지 여부를 판단한다. (Slice와 같은 방식)
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> idExtractor) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encode(idExtractor.apply(content.get(content.size() - 1))) : null;
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 커서가 없으면 첫 페이지
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서 값입니다. cursor = " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+@Data
+public class TeamStatsDto {
+
+    private Long teamId;
+    private long memberCount;
+    private long ageSum;
+    private Integer minAge;     // 회원이 없으면 null
+    private Integer maxAge;
+    private Double averageAge;
+
+    public TeamStatsDto(Long teamId, long memberCount, long ageSum, Integer minAge, Integer maxAge) {
+        this.teamId = teamId;
+        this.memberCount = memberCount;
+        this.ageSum = ageSum;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.averageAge = memberCount == 0 ? null : (double) ageSum / memberCount;
+    }
+}
@@ -1,6 +1,7 @@
 package study.datajpa.entity;
 
 import lombok.Getter;
+import lombok.Setter;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -16,16 +17,21 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)  // 이벤트를 기반으로 동작한다는 뜻
 @MappedSuperclass   // 테이블에 반영
 @Getter
+@Setter     // 바이트코드 향상(dirty tracking) 시 auditing이 필드를 직접 바꾸면 변경이 기록되지 않아서 setter로 넣게 한다.
 public class BaseEntity extends BaseTimeEntity{
 
-    //값을 넣으려면 main 컨트롤러에서 auditorProvider 메소드 Bean등록해야한다.
+    // 사용자 id나 이름 정도만 저장 (기본 255 -> 50)
+    public static final int AUDITOR_LENGTH = 50;
+
+    //값을 넣으려면 auditorProvider Bean을 등록해야한다. (AuditConfig)
     // 등록되거나 수정될 때마다 auditorProvider를 호출해서 결과물을 꺼내간다.
     //등록자
     @CreatedBy
-    @Column(updatable = false)  //등록자는 수정 불가하게 설정
+    @Column(updatable = false, length = AUDITOR_LENGTH)  //등록자는 수정 불가하게 설정
     private String createdBy;
 
     //수정자
     @LastModifiedBy
+    @Column(length = AUDITOR_LENGTH)
     private String lastModifiedBy;
 }
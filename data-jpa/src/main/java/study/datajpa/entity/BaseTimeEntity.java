@@ -1,6 +1,7 @@
 package study.datajpa.entity;
 
 import lombok.Getter;
+import lombok.Setter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -12,12 +13,16 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)  // 이벤트를 기반으로 동작한다는 뜻
 @MappedSuperclass   // 테이블에 반영
 @Getter
+@Setter     // 바이트코드 향상(dirty tracking) 시 auditing이 필드를 직접 바꾸면 변경이 기록되지 않아서 setter로 넣게 한다.
 public class BaseTimeEntity {
 
     @CreatedDate
     @Column(updatable = false)  //변경은 x
     private LocalDateTime createdDate;
 
+    // @PreUpdate 시점에 채워지는데 하이버네이트는 실제로 바뀐 값이 있는 엔티티만 @PreUpdate를 호출한다.
+    // 같은 값으로 set 하거나 조회만 한 엔티티는 update도, 수정일 변경도 없다.
+    // 수정자(lastModifiedBy)는 같은 사용자면 값이 그대로라 @DynamicUpdate 엔티티의 update에 포함되지 않는다.
     @LastModifiedDate   // 마지막 수정일
     private LocalDateTime lastModifiedDate;
 
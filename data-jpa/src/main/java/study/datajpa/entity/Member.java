@@ -1,6 +1,10 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 
@@ -11,13 +15,28 @@ import javax.persistence.*;
 @ToString(of = {"id", "username", "age"})
 @NamedQuery(
         name = "Member.findByUsername",
-        query = "select m from Member m where m.username = :username"
+        query = "select m from Member m where m.username = :username",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true")   //쿼리 캐시
 )
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)    //2차 캐시 - findById, em.find는 DB까지 가지 않는다.
+@Table(indexes = @Index(name = "idx_member_username", columnList = "username"))  //이름으로 찾는 쿼리(findByUsername ...), 앞부분 like 검색
+@DynamicUpdate   //바뀐 컬럼만 update (age만 바꾸면 set age=?, last_modified_date=? 만 나간다)
 public class Member extends BaseEntity{
 
-    @Id @GeneratedValue
+    // 시퀀스를 50개씩 미리 받아와서(pooled) 엔티티마다 시퀀스를 조회하지 않는다. -> insert를 JDBC 배치로 묶을 수 있다.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "memberId")
     private Long id;
+
+    // 낙관적 락 - update 할 때 where version = ? 로 확인하고 1 증가시킨다.
+    // 그사이 다른 트랜잭션이 먼저 바꿨으면 ObjectOptimisticLockingFailureException (RetryExecutor로 재시도)
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     private String username;
     private int age;
 
@@ -40,9 +59,26 @@ public class Member extends BaseEntity{
         if(team != null) changeTeam(team);
     }
 
+    // 팀 변경 - 외래 키(team_id)는 Member 쪽이고 Team.members도 같이 맞춘다. (이전 팀에서 빼고 새 팀에 넣기)
+    // Team.members가 EXTRA라 로딩 안 된 컬렉션은 읽지 않고 변경만 쌓아둔다. -> 회원이 10만 명인 팀이어도 컬렉션을 로딩하지 않는다.
+    // 같은 트랜잭션에서 flush 전에 컬렉션을 로딩해도 옮긴 회원이 반영되어 있다.
     public void changeTeam(Team team) {
+        if (this.team == team) {
+            return;
+        }
+        if (this.team != null && canSyncMembers(this.team)) {
+            this.team.getMembers().remove(this);
+        }
         this.team = team;
-        team.getMembers().add(this);
+        if (team != null && canSyncMembers(team)) {
+            team.getMembers().add(this);
+        }
+    }
+
+    // 로딩 안 된 컬렉션은 DB에서 이 회원이 있는지 확인하는데 저장 전(id 없음)이면 확인할 수 없다.
+    // 새 회원은 로딩된 컬렉션(새 팀, persist한 팀)에만 넣고, 나머지는 저장(flush)된 뒤 로딩할 때 보인다.
+    private boolean canSyncMembers(Team team) {
+        return id != null || Hibernate.isInitialized(team.getMembers());
     }
 
 }
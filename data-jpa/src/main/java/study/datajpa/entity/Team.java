@@ -4,24 +4,49 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
+import org.hibernate.annotations.OptimisticLock;
 
 import javax.persistence.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)    //팀은 거의 바뀌지 않아서 2차 캐시에 올려둔다.
+@DynamicUpdate   //바뀐 컬럼만 update
 public class Team {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
+
+    @Version    // 낙관적 락
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     private String name;
     private int age;
 
+    // Set - 로딩된 컬렉션에서 추가/제거가 O(1)이고 같은 회원이 두 번 들어가지 않는다. (Member는 equals를 재정의하지 않아서 인스턴스 기준)
+    // EXTRA - 로딩 안 된 컬렉션에 add/remove/contains/size를 해도 전체를 읽지 않는다.
+    //  add/remove는 그 회원 한 명이 팀에 있는지만 확인하고 변경을 쌓아뒀다가 컬렉션을 로딩할 때 반영한다.
+    //  컬렉션 전체가 필요하면 Hibernate.initialize (size()는 count 쿼리라 배치 로딩이 되지 않음)
+    // 추가/제거는 Member.changeTeam에서
+    // 낙관적 락 제외 - 컬렉션이 바뀌어도 팀 version을 올리지 않는다. (회원이 옮길 때마다 팀 행 update, 같은 팀으로 옮기는 트랜잭션끼리 충돌 방지)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)    //컬렉션은 회원 id 목록만 캐시된다.
     @OneToMany(mappedBy = "team")
-    private List<Member> members = new ArrayList<>();
+    @LazyCollection(LazyCollectionOption.EXTRA)
+    @OptimisticLock(excluded = true)
+    private Set<Member> members = new HashSet<>();
 
     public Team(String name) {
         this.name = name;
@@ -0,0 +1,15 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface ItemRepositoryCustom {
+
+    // 없는 id만 insert, 이미 있는 id는 그대로 둔다. (merge처럼 한건씩 select 하지 않음)
+    int upsertAll(Collection<Item> items);
+
+    // 넘겨준 id 중에 DB에 이미 있는 id만 모아서 반환
+    Set<String> findExistingIds(Collection<String> ids);
+}
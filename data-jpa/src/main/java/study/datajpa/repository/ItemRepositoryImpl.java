@@ -0,0 +1,97 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Item은 id를 직접 넣기 때문에 save를 하면 isNew()가 false인 경우 merge -> select가 먼저 한번 나간다.
+// 대량으로 넣을 때는 엔티티를 거치지 않고 DB의 MERGE 문으로 한번에 처리한다.
+@RequiredArgsConstructor
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private static final int BATCH_SIZE = 100;  // yml의 hibernate.jdbc.batch_size와 동일
+
+    // 표준 SQL MERGE (H2). PostgreSQL이라면 insert ... on conflict (id) do nothing 으로 바꾸면 된다.
+    private static final String UPSERT_SQL =
+            "merge into item i" +
+            " using (select cast(? as varchar(255)) as id, cast(? as timestamp) as created_date) s" +
+            " on i.id = s.id" +
+            " when not matched then insert (id, created_date) values (s.id, s.created_date)";
+
+    private final EntityManager em;
+
+    @Override
+    @Transactional
+    public int upsertAll(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        em.flush(); // 영속성 컨텍스트에 쌓인 변경을 먼저 반영
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] inserted = {0};
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(UPSERT_SQL)) {
+                int count = 0;
+                for (Item item : items) {
+                    ps.setString(1, item.getId());
+                    ps.setTimestamp(2, now);
+                    ps.addBatch();
+                    if (++count % BATCH_SIZE == 0) {
+                        inserted[0] += sum(ps.executeBatch());
+                    }
+                }
+                if (count % BATCH_SIZE != 0) {
+                    inserted[0] += sum(ps.executeBatch());
+                }
+            }
+        });
+        return inserted[0];
+    }
+
+    // in 절이 너무 길어지지 않도록 BATCH_SIZE개씩 나눠서 조회
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findExistingIds(Collection<String> ids) {
+        Set<String> existing = new HashSet<>();
+        List<String> chunk = new ArrayList<>(BATCH_SIZE);
+        for (String id : ids) {
+            chunk.add(id);
+            if (chunk.size() == BATCH_SIZE) {
+                existing.addAll(selectExistingIds(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            existing.addAll(selectExistingIds(chunk));
+        }
+        return existing;
+    }
+
+    private List<String> selectExistingIds(List<String> ids) {
+        return em.createQuery("select i.id from Item i where i.id in :ids", String.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    // 드라이버에 따라 건수를 모르면 음수(SUCCESS_NO_INFO)가 올 수 있다.
+    private int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+}
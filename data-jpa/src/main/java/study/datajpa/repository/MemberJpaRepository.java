@@ -69,6 +69,25 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    //findByPage의 커서 버전 - 마지막으로 본 (username, id) 다음부터 조회
+    //username이 같을 수 있어서 id까지 같이 비교해야 중복이나 누락이 없다.
+    public List<Member> findByCursor(int age, String lastUsername, Long lastId, int limit) {
+        if (lastUsername == null) {
+            return em.createQuery("select m from Member m where m.age = :age order by m.username desc, m.id desc", Member.class)
+                    .setParameter("age", age)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createQuery("select m from Member m where m.age = :age" +
+                        " and (m.username < :username or (m.username = :username and m.id < :id))" +
+                        " order by m.username desc, m.id desc", Member.class)
+                .setParameter("age", age)
+                .setParameter("username", lastUsername)
+                .setParameter("id", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     //10살인 아이가 몇명인지
     public long totalCount(int age) {
         return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
@@ -79,7 +98,7 @@ public class MemberJpaRepository {
     //회원의 나이를 한번에 변경
     public int bulkAgePlus(int age) {
         // executeUpdate로 인해 응답값에 갯수가 저장된다.
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+        return em.createQuery("update versioned Member m set m.age = m.age + 1 where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
     }
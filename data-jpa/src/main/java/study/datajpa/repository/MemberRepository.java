@@ -2,8 +2,12 @@ package study.datajpa.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
@@ -12,7 +16,14 @@ import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+
+// 조회 메소드는 읽기 전용 트랜잭션 - 플러시, 스냅샷(더티 체킹) 생략, 라우팅 사용 시 복제본으로 조회
+@Transactional(readOnly = true)
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom{
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
@@ -20,6 +31,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     List<Member> findTop3HelloBy();
 
 //  @Query(name = "Member.findByUsername")  생략가능
+//  네임드 쿼리에 org.hibernate.cacheable 힌트가 있어서 쿼리 캐시를 사용한다.
     List<Member> findByUsername(@Param("username") String username);
 
     @Query("select m from Member m where m.username = :username and m.age = :age")
@@ -31,8 +43,35 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") Collection<String> names);
+    // 페이징 + DTO 직접 조회 - 엔티티를 만들지 않고 필요한 컬럼(id, username, team.name)만 가져온다.
+    // 스냅샷, 프록시 생성이 없고 팀 이름도 한 쿼리에 같이 조회된다. 정렬은 회원 기준 (sort=username,desc)
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    // count 쿼리 없이 size + 1개를 조회해서 다음 페이지가 있는지만 알려준다. (무한 스크롤, 전체 개수가 필요 없을 때)
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+    Slice<MemberDto> findMemberDtoSlice(Pageable pageable);
+
+    // 전체 회원을 List로 한번에 올리지 않고 커서로 한 줄씩 읽는다. (대량 export 용)
+    // DTO로 바로 조회하기 때문에 영속성 컨텍스트에 엔티티가 쌓이지 않아서 중간에 clear할 필요도 없다.
+    // 트랜잭션 안에서 사용하고 다 쓰면 꼭 close 해야 한다. (try-with-resources)
+    @QueryHints(value = {
+            @QueryHint(name = FETCH_SIZE, value = "1000"),
+            @QueryHint(name = READ_ONLY, value = "true")
+    })
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t order by m.id")
+    Stream<MemberDto> streamMemberDto();
+
+    // findByNames는 in 절을 나눠서 조회하기 위해 MemberRepositoryCustom으로 옮김
+
+    // 이름 검색 - 보통은 MemberSearchIndex(메모리)를 쓰고 인덱스를 채우는 중(시작 직후)에만 DB에서 찾는다.
+    // 대소문자를 무시하기 때문에 username 인덱스를 타지 못한다.
+    @Query("select m.id from Member m where lower(m.username) like :pattern escape '\\' order by m.username, m.id")
+    List<Long> searchIdsByUsername(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t where m.id in :ids")
+    List<MemberDto> findMemberDtoByIdIn(@Param("ids") Collection<Long> ids);
     
     List<Member> findListByUsername(String username);   //컬렉션
     Member findMemberByUsername(String username); //단건
@@ -46,10 +85,27 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
 
     // 순수 JPA가 아닌 스프링 데이터 JPA로 연봉값을 한번에 올리는 방법
+    @Transactional
     @Modifying(clearAutomatically = true)  // 변경한다고 명시적으로 추가해야함.
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update versioned Member m set m.age = m.age + 1 where m.age >= :age")    // versioned - version도 같이 증가
     int bulkAgePlus(@Param("age") int age);
 
+    // 비관적 락 (select ... for update) - 충돌이 아주 잦은 일부 회원만. 평소에는 @Version(낙관적 락) + RetryExecutor
+    // 락은 트랜잭션이 끝날 때 풀리기 때문에 반드시 바깥 트랜잭션 안에서 호출해야 한다. (MANDATORY)
+    // lock.timeout(ms)을 넘기면 PessimisticLockingFailureException (H2는 힌트 대신 LOCK_TIMEOUT 설정을 따른다)
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000"))
+    @Query("select m from Member m where m.id = :id")
+    Optional<Member> findLockedById(@Param("id") Long id);
+
+    // 여러 명을 잠글 때는 항상 id 순서로 잠가서 데드락을 피한다.
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000"))
+    @Query("select m from Member m where m.id in :ids order by m.id")
+    List<Member> findLockedByIdIn(@Param("ids") Collection<Long> ids);
+
     // Member를 조회할 때 연관된 팀을 한쿼리에 조회
     @Query("select m from Member m left join fetch m.team")
     List<Member> findMemberFetchJoin();
@@ -73,4 +129,18 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
     Member findReadOnlyByUsername(String username);
 
+    // 비동기 조회 - repositoryExecutor(JDK 21 이상이면 가상 스레드)에서 실행되고 호출한 스레드는 바로 반환된다.
+    // 다른 스레드의 트랜잭션에서 조회되므로 결과는 준영속 상태 (지연 로딩 x)
+    @Async("repositoryExecutor")
+    CompletableFuture<List<Member>> findAsyncByUsername(String username);
+
+    // findByNames(중복 제거, 1024개씩 나눠서 조회)를 그대로 비동기로
+    @Async("repositoryExecutor")
+    default CompletableFuture<List<Member>> findAsyncByNames(Collection<String> names) {
+        return CompletableFuture.completedFuture(findByNames(names));
+    }
+
+    @Async("repositoryExecutor")
+    CompletableFuture<Member> findAsyncById(Long id);
+
 }
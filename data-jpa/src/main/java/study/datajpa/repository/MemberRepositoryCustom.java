@@ -1,9 +1,26 @@
 package study.datajpa.repository;
 
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    // username in (...) 조회 - 이름이 많으면 나눠서 조회한 뒤 합친다.
+    List<Member> findByNames(Collection<String> names);
+
+    // 커서 기반 페이징 - lastId 다음 회원부터 limit개 조회 (lastId가 null이면 처음부터)
+    List<Member> findMemberByCursor(Long lastId, int limit);
+
+    // 커서 기반 페이징 DTO 버전 - id, username, team.name만 조회
+    List<MemberDto> findMemberDtoByCursor(Long lastId, int limit);
+
+    // 대량 저장 - chunk개 마다 flush, clear 해서 JDBC 배치로 보내고 영속성 컨텍스트를 비운다.
+    // MemberRepository의 읽기 전용 트랜잭션이 적용되지 않도록 쓰기 트랜잭션 명시
+    @Transactional
+    int saveAllBatched(Iterable<Member> members, int chunk);
 }
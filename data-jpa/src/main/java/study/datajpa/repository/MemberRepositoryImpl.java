@@ -1,18 +1,104 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
+    // in 절 하나에 넣을 최대 개수 (2의 거듭제곱이라 in_clause_parameter_padding으로 늘어나지 않는다)
+    static final int IN_CLAUSE_CHUNK_SIZE = 1024;
+
     private final EntityManager em;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m").getResultList();
     }
+
+    // 목록 크기마다 SQL이 달라지면 쿼리 플랜 캐시와 DB 문장 캐시가 금방 차버린다.
+    // - yml의 in_clause_parameter_padding으로 파라미터 개수를 2의 거듭제곱으로 맞추고 (3개 -> 4개)
+    // - 너무 많으면 드라이버 파라미터 제한에 걸리므로 IN_CLAUSE_CHUNK_SIZE개씩 나눠서 조회
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findByNames(Collection<String> names) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(names));
+        if (distinct.size() <= IN_CLAUSE_CHUNK_SIZE) {
+            return selectByNames(distinct);
+        }
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinct.size());
+            result.addAll(selectByNames(distinct.subList(from, to)));
+        }
+        return result;
+    }
+
+    private List<Member> selectByNames(List<String> names) {
+        return em.createQuery("select m from Member m where m.username in :names", Member.class)
+                .setParameter("names", names)
+                .getResultList();
+    }
+
+    // offset은 앞의 데이터를 전부 읽고 버리기 때문에 뒤로 갈수록 느려진다.
+    // pk 인덱스를 타고 lastId 다음부터 바로 읽기 때문에 몇번째 페이지든 속도가 일정하다.
+    @Override
+    public List<Member> findMemberByCursor(Long lastId, int limit) {
+        if (lastId == null) {
+            return em.createQuery("select m from Member m order by m.id asc", Member.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createQuery("select m from Member m where m.id > :lastId order by m.id asc", Member.class)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<MemberDto> findMemberDtoByCursor(Long lastId, int limit) {
+        String select = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t";
+        if (lastId == null) {
+            return em.createQuery(select + " order by m.id asc", MemberDto.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createQuery(select + " where m.id > :lastId order by m.id asc", MemberDto.class)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // saveAll은 한건씩 save 하면서 영속성 컨텍스트에 전부 쌓아두기 때문에 건수가 많으면 메모리도 터지고 flush도 느려진다.
+    // chunk는 yml의 hibernate.jdbc.batch_size와 맞추는 것이 좋다.
+    // 주의 - 중간에 clear 하기 때문에 호출한 쪽 트랜잭션의 영속성 컨텍스트도 같이 비워진다.
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Member> members, int chunk) {
+        Assert.isTrue(chunk > 0, "chunk는 1 이상이어야 합니다.");
+        int count = 0;
+        for (Member member : members) {
+            if (member.getId() == null) {
+                em.persist(member);
+            } else {
+                em.merge(member);
+            }
+            if (++count % chunk == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
 }
@@ -0,0 +1,11 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.entity.Team;
+
+public interface TeamRepositoryCustom {
+
+    // 팀 페이지 + 각 팀의 members까지 초기화해서 반환 (팀 수와 상관없이 쿼리 2번 + count)
+    Page<Team> findPageWithMembers(Pageable pageable);
+}
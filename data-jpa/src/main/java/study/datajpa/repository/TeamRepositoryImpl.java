@@ -0,0 +1,60 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final EntityManager em;
+
+    // 컬렉션 fetch join은 페이징과 같이 쓸 수 없다. (메모리에서 페이징 - 경고 로그)
+    // 1. 페이지에 해당하는 팀 id만 페이징 조회
+    // 2. 그 id들로 members를 fetch join 해서 한번에 조회
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Team> findPageWithMembers(Pageable pageable) {
+        String idQuery = pageable.getSort().isSorted()
+                ? QueryUtils.applySorting("select t.id from Team t", pageable.getSort(), "t")
+                : "select t.id from Team t order by t.id";
+        List<Long> ids = em.createQuery(idQuery, Long.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        List<Team> content = ids.isEmpty() ? Collections.emptyList() : findWithMembers(ids);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> em.createQuery("select count(t) from Team t", Long.class).getSingleResult());
+    }
+
+    private List<Team> findWithMembers(List<Long> ids) {
+        List<Team> teams = em.createQuery("select distinct t from Team t left join fetch t.members where t.id in :ids", Team.class)
+                .setParameter("ids", ids)
+                .setHint(QueryHints.PASS_DISTINCT_THROUGH, false)   //distinct는 애플리케이션에서만 (SQL에는 x)
+                .getResultList();
+
+        //첫 번째 쿼리의 정렬 순서대로
+        Map<Long, Team> byId = new HashMap<>();
+        for (Team team : teams) {
+            byId.put(team.getId(), team);
+        }
+        List<Team> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ordered.add(byId.get(id));
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,15 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+
+// 청크 도중 실패 - 그 전 청크까지는 커밋되어 있으므로 progress.getLastId() 다음부터 다시 실행하면 된다.
+@Getter
+public class BulkUpdateException extends RuntimeException {
+
+    private final BulkUpdateResult progress;
+
+    public BulkUpdateException(BulkUpdateResult progress, Throwable cause) {
+        super("일괄 수정 실패 - 마지막 커밋 id = " + progress.getLastId(), cause);
+        this.progress = progress;
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+// 청크 단위 일괄 수정 진행 상황 / 결과
+@Getter
+@ToString
+public class BulkUpdateResult {
+
+    private final long updatedRows;
+    private final Long lastId;          // 마지막으로 커밋된 청크의 마지막 id (다시 시작할 때 resumeAfterId로 넘긴다)
+    private final int chunks;
+    private final long elapsedNanos;
+    private final long updateNanos;     // update 문 실행 시간 합계 (락 대기 시간 포함)
+    private final long maxChunkUpdateNanos;
+
+    BulkUpdateResult(long updatedRows, Long lastId, int chunks, long elapsedNanos, long updateNanos, long maxChunkUpdateNanos) {
+        this.updatedRows = updatedRows;
+        this.lastId = lastId;
+        this.chunks = chunks;
+        this.elapsedNanos = elapsedNanos;
+        this.updateNanos = updateNanos;
+        this.maxChunkUpdateNanos = maxChunkUpdateNanos;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : updatedRows / (elapsedNanos / 1_000_000_000.0);
+    }
+}
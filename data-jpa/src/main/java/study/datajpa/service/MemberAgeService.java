@@ -0,0 +1,38 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.config.RetryExecutor;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityNotFoundException;
+
+// 여러 작업자가 동시에 같은 회원의 나이를 바꿀 때
+//  increaseAge       - 낙관적 락(@Version) + 충돌하면 재시도 (기본)
+//  increaseAgeLocked - 비관적 락 (select ... for update), 충돌이 아주 잦은 회원만
+@Service
+@RequiredArgsConstructor
+public class MemberAgeService {
+
+    private final MemberRepository memberRepository;
+    private final RetryExecutor retryExecutor;
+
+    public int increaseAge(Long memberId, int delta) {
+        return retryExecutor.execute(() -> {
+            Member member = memberRepository.findById(memberId)
+                    .orElseThrow(() -> new EntityNotFoundException("회원이 없습니다. id = " + memberId));
+            member.setAge(member.getAge() + delta);
+            return member.getAge();
+        });
+    }
+
+    @Transactional
+    public int increaseAgeLocked(Long memberId, int delta) {
+        Member member = memberRepository.findLockedById(memberId)
+                .orElseThrow(() -> new EntityNotFoundException("회원이 없습니다. id = " + memberId));
+        member.setAge(member.getAge() + delta);
+        return member.getAge();
+    }
+}
@@ -0,0 +1,161 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.support.MemberChangedEvent;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.function.Consumer;
+
+// bulkAgePlus를 id 구간(청크)별로 나눠서 실행
+// - 청크마다 따로 커밋해서 락을 오래 잡지 않고 undo도 쌓이지 않는다.
+// - 실패하면 마지막으로 커밋된 id부터 다시 시작할 수 있다.
+// - @Modifying(clearAutomatically = true)처럼 영속성 컨텍스트 전체를 비우지 않고 바뀐 회원만 1차, 2차 캐시에서 뺀다.
+@Slf4j
+@Service
+public class MemberBulkUpdateService {
+
+    // JPQL 벌크 연산은 하이버네이트가 Member 2차 캐시 영역을 통째로 비우기 때문에 JDBC로 직접 실행한다.
+    // version도 올려야 그사이 회원을 조회해둔 트랜잭션이 덮어쓰지 않는다. (낙관적 락)
+    private static final String AGE_PLUS_SQL =
+            "update member set age = age + 1, version = version + 1 where member_id > ? and member_id <= ? and age >= ?";
+
+    @PersistenceContext
+    private EntityManager em;
+    private final EntityManagerFactory emf;
+    private final TransactionTemplate chunkTransaction;
+    private final ApplicationEventPublisher publisher;
+
+    public MemberBulkUpdateService(EntityManagerFactory emf, PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher publisher) {
+        this.emf = emf;
+        this.publisher = publisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public BulkUpdateResult bulkAgePlus(int age, int chunkSize) {
+        return bulkAgePlus(age, chunkSize, null, progress -> { });
+    }
+
+    // resumeAfterId - 이전 실행이 실패했을 때 BulkUpdateException의 lastId (처음이면 null)
+    public BulkUpdateResult bulkAgePlus(int age, int chunkSize, Long resumeAfterId, Consumer<BulkUpdateResult> progressListener) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다.");
+        }
+        long start = System.nanoTime();
+        long lastId = resumeAfterId == null ? 0L : resumeAfterId;
+        long updatedRows = 0;
+        long updateNanos = 0;
+        long maxChunkUpdateNanos = 0;
+        int chunks = 0;
+
+        while (true) {
+            Chunk chunk;
+            try {
+                chunk = updateChunk(age, lastId, chunkSize);
+            } catch (RuntimeException e) {
+                BulkUpdateResult progress = new BulkUpdateResult(updatedRows, lastId, chunks,
+                        System.nanoTime() - start, updateNanos, maxChunkUpdateNanos);
+                throw new BulkUpdateException(progress, e);
+            }
+            if (chunk == null) {
+                break;
+            }
+            evict(chunk.ids);
+
+            lastId = chunk.ids.get(chunk.ids.size() - 1);
+            updatedRows += chunk.updated;
+            updateNanos += chunk.updateNanos;
+            maxChunkUpdateNanos = Math.max(maxChunkUpdateNanos, chunk.updateNanos);
+            chunks++;
+
+            BulkUpdateResult progress = new BulkUpdateResult(updatedRows, lastId, chunks,
+                    System.nanoTime() - start, updateNanos, maxChunkUpdateNanos);
+            log.debug("bulkAgePlus 진행 {}", progress);
+            progressListener.accept(progress);
+        }
+
+        BulkUpdateResult result = new BulkUpdateResult(updatedRows, lastId, chunks,
+                System.nanoTime() - start, updateNanos, maxChunkUpdateNanos);
+        log.info("bulkAgePlus 완료 - {}건, {} rows/sec, update 시간 {}ms (최대 청크 {}ms)", result.getUpdatedRows(),
+                (long) result.getRowsPerSecond(), updateNanos / 1_000_000, maxChunkUpdateNanos / 1_000_000);
+        return result;
+    }
+
+    // 청크 하나 = 트랜잭션 하나
+    private Chunk updateChunk(int age, long lastId, int chunkSize) {
+        return chunkTransaction.execute(status -> {
+            List<Long> ids = em.createQuery(
+                            "select m.id from Member m where m.id > :lastId and m.age >= :age order by m.id", Long.class)
+                    .setParameter("lastId", lastId)
+                    .setParameter("age", age)
+                    .setMaxResults(chunkSize)
+                    .getResultList();
+            if (ids.isEmpty()) {
+                return null;
+            }
+
+            long[] result = new long[2];
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(AGE_PLUS_SQL)) {
+                    ps.setLong(1, lastId);
+                    ps.setLong(2, ids.get(ids.size() - 1));
+                    ps.setInt(3, age);
+                    long updateStart = System.nanoTime();
+                    result[0] = ps.executeUpdate();
+                    result[1] = System.nanoTime() - updateStart;
+                }
+            });
+            return new Chunk(ids, result[0], result[1]);
+        });
+    }
+
+    // 바뀐 회원만 2차 캐시와 (호출한 쪽의) 영속성 컨텍스트에서 제거하고 변경 이벤트 발행 (JDBC라 하이버네이트 이벤트가 없음)
+    private void evict(List<Long> ids) {
+        for (Long id : ids) {
+            emf.getCache().evict(Member.class, id);
+            publisher.publishEvent(new MemberChangedEvent(MemberChangedEvent.Type.UPDATE, id));
+        }
+
+        EntityManager callerEm = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        if (callerEm == null) {
+            return;
+        }
+        SessionImplementor session = callerEm.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Member.class);
+        for (Long id : ids) {
+            EntityKey key = session.generateEntityKey(id, persister);
+            Object managed = session.getPersistenceContext().getEntity(key);
+            if (managed != null) {
+                callerEm.detach(managed);
+            }
+        }
+    }
+
+    private static class Chunk {
+        private final List<Long> ids;
+        private final long updated;
+        private final long updateNanos;
+
+        Chunk(List<Long> ids, long updated, long updateNanos) {
+            this.ids = ids;
+            this.updated = updated;
+            this.updateNanos = updateNanos;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// 회원 전체를 한 줄씩 읽어서 바로 Writer로 내보낸다.
+// 결과를 List로 모으지 않기 때문에 회원 수와 상관없이 메모리 사용량이 일정하다.
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+
+    // 스트림은 트랜잭션(커넥션)이 열려 있는 동안만 읽을 수 있다.
+    @Transactional(readOnly = true)
+    public long exportNdjson(Writer writer) throws IOException {
+        long count = 0;
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+            Iterator<MemberDto> it = members.iterator();
+            while (it.hasNext()) {
+                writer.write(objectMapper.writeValueAsString(it.next()));
+                writer.write('\n');
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportCsv(Writer writer) throws IOException {
+        long count = 0;
+        writer.write("id,username,teamName\n");
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+            Iterator<MemberDto> it = members.iterator();
+            while (it.hasNext()) {
+                MemberDto dto = it.next();
+                writer.write(String.valueOf(dto.getId()));
+                writer.write(',');
+                writer.write(csv(dto.getUsername()));
+                writer.write(',');
+                writer.write(csv(dto.getName()));
+                writer.write('\n');
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    // 쉼표, 따옴표, 줄바꿈이 들어있으면 따옴표로 감싼다.
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,245 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.AfterCommitBuffer;
+import study.datajpa.support.MemberChangedEvent;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// 회원 이름 검색용 메모리 인덱스 (대소문자 무시)
+//  앞부분 검색(prefix)  - 이름 순으로 정렬된 ConcurrentSkipListMap에서 범위 조회
+//  포함 검색(contains)  - 3글자 조각(trigram) -> 회원 id 역색인, 후보를 뽑은 뒤 실제 이름으로 한 번 더 확인
+//                        3글자 미만 검색어는 정렬된 이름을 앞에서부터 훑는다.
+// 저장/수정/삭제는 MemberChangedEvent로 커밋된 뒤에 반영하고, 시작할 때 id 순으로 나눠서 다시 채운다.
+// 채우는 동안에는 DB like 검색으로 대신한다.
+@Slf4j
+@Service
+public class MemberSearchIndex implements ApplicationRunner {
+
+    private static final int GRAM = 3;
+    private static final int REBUILD_CHUNK = 10_000;
+    private static final char SEPARATOR = '\u0000';
+
+    @PersistenceContext
+    private EntityManager em;
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // key = 소문자 이름 + \0 + id (같은 이름이 여러 명일 수 있어서)
+    private final ConcurrentSkipListMap<String, Long> byUsername = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> usernames = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> grams = new ConcurrentHashMap<>();
+    private final AfterCommitBuffer<MemberChangedEvent> changes = new AfterCommitBuffer<>(this::apply);
+
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    public MemberSearchIndex(MemberRepository memberRepository, PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        // 읽기 전용이면 복제본으로 라우팅될 수 있어서 일반 트랜잭션
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return usernames.size();
+    }
+
+    // 이름 순 (같은 이름이면 id 순)
+    public List<Long> searchIds(String query, boolean contains, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        if (!ready) {
+            String pattern = (contains ? "%" : "") + escapeLike(normalized) + "%";
+            return memberRepository.searchIdsByUsername(pattern, PageRequest.of(0, limit));
+        }
+        return contains ? contains(normalized, limit) : prefix(normalized, limit);
+    }
+
+    private List<Long> prefix(String prefix, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        for (Long id : byUsername.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            ids.add(id);
+            if (ids.size() >= limit) {
+                break;
+            }
+        }
+        return ids;
+    }
+
+    private List<Long> contains(String query, int limit) {
+        List<Long> ids = new ArrayList<>();
+        if (query.length() < GRAM) {
+            for (Map.Entry<String, Long> entry : byUsername.entrySet()) {
+                if (username(entry.getKey()).contains(query)) {
+                    ids.add(entry.getValue());
+                    if (ids.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+            return ids;
+        }
+
+        // 가장 적은 id를 가진 조각에서 후보를 뽑는다.
+        Set<Long> smallest = null;
+        for (String gram : grams(query)) {
+            Set<Long> posting = grams.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        List<String> keys = new ArrayList<>();
+        for (Long id : smallest) {
+            String username = usernames.get(id);
+            if (username != null && username.contains(query)) {
+                keys.add(key(username, id));
+            }
+        }
+        keys.sort(Comparator.naturalOrder());
+        for (String key : keys.subList(0, Math.min(limit, keys.size()))) {
+            ids.add(Long.valueOf(key.substring(key.lastIndexOf(SEPARATOR) + 1)));
+        }
+        return ids;
+    }
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        // 벌크 연산(bulkAgePlus)은 나이만 바꾸기 때문에 인덱스와 상관 없음
+        if (event.getType() != MemberChangedEvent.Type.BULK_UPDATE) {
+            changes.add(event);
+        }
+    }
+
+    private void apply(List<MemberChangedEvent> events) {
+        for (MemberChangedEvent event : events) {
+            if (rebuilding) {
+                changedDuringRebuild.add(event.getMemberId());
+            }
+            if (event.getType() == MemberChangedEvent.Type.DELETE) {
+                remove(event.getMemberId());
+            } else if (event.getAfter() != null) {      //값을 모르는 경우(JDBC 나이 변경)는 이름이 안 바뀜
+                put(event.getMemberId(), event.getAfter().getUsername());
+            }
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    // id 순으로 REBUILD_CHUNK명씩 읽어서 채운다. 그사이 바뀐 회원은 이벤트 쪽 값이 최신이므로 건너뛴다.
+    public void rebuild() {
+        long start = System.nanoTime();
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            long lastId = 0;
+            while (true) {
+                long after = lastId;
+                List<Object[]> rows = transactionTemplate.execute(status -> em.createQuery(
+                                "select m.id, m.username from Member m where m.id > :lastId order by m.id", Object[].class)
+                        .setParameter("lastId", after)
+                        .setMaxResults(REBUILD_CHUNK)
+                        .getResultList());
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    if (!changedDuringRebuild.contains(id)) {
+                        put(id, (String) row[1]);
+                    }
+                }
+                lastId = (Long) rows.get(rows.size() - 1)[0];
+            }
+        } finally {
+            rebuilding = false;
+        }
+        ready = true;
+        log.info("회원 이름 검색 인덱스 - {}명, {}ms", usernames.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // 쓰기는 한 번에 하나만 (읽기는 잠금 없음)
+    private synchronized void put(Long id, String username) {
+        remove(id);
+        if (username == null) {
+            return;
+        }
+        String normalized = normalize(username);
+        usernames.put(id, normalized);
+        byUsername.put(key(normalized, id), id);
+        for (String gram : grams(normalized)) {
+            grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        String old = usernames.remove(id);
+        if (old == null) {
+            return;
+        }
+        byUsername.remove(key(old, id));
+        for (String gram : grams(old)) {
+            Set<Long> posting = grams.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            result.add(value.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    private static String key(String normalized, Long id) {
+        return normalized + SEPARATOR + id;
+    }
+
+    private static String username(String key) {
+        return key.substring(0, key.lastIndexOf(SEPARATOR));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,346 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.TeamStatsDto;
+import study.datajpa.support.AfterCommitBuffer;
+import study.datajpa.support.MemberChangedEvent;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 팀별 회원 수, 나이 합계/최소/최대를 메모리에 유지한다. (조회할 때마다 Team.members 로딩이나 group by를 하지 않음)
+//  저장/삭제/팀 변경(changeTeam)/나이 변경 - MemberChangedEvent의 변경 전/후 값으로 커밋된 뒤에 더하고 뺀다.
+//  최소/최대인 회원이 빠지면 그 팀만 DB에서 다시 계산
+//  벌크 연산(bulkAgePlus)은 누가 바뀌었는지 모르기 때문에 전체를 다시 계산한다. (한 스레드만, 나머지는 이전 값 응답)
+//  놓친 변경이 있어도 주기적으로(reconcile) DB의 group by 결과와 맞춘다.
+//  커밋 전~반영 전인 변경이 있는 팀은 맞추지 않는다. (이미 커밋돼서 group by에 보이는데 뒤에 또 더하면 두 번 세게 됨)
+// Team.age 같은 컬럼에 저장하지 않는 이유 - 회원이 바뀔 때마다 팀 행을 수정하면 같은 팀 행에 락 경합, 2차 캐시 무효화가 생긴다.
+@Slf4j
+@Service
+public class TeamStatsService implements ApplicationRunner {
+
+    private static final String GROUP_BY_TEAM = "select m.team.id, count(m), sum(m.age), min(m.age), max(m.age)" +
+            " from Member m where m.team is not null";
+
+    @PersistenceContext
+    private EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Counters> counters = new HashMap<>();    // this로 동기화
+    private final Set<Long> staleTeams = new HashSet<>();             // 최소/최대를 다시 계산해야 하는 팀
+    private final Map<Long, Long> lastChanges = new HashMap<>();      // 팀별 마지막 변경 순번
+    private final Map<Long, Integer> inFlight = new HashMap<>();      // 팀별 아직 반영 안 된 변경 수 (flush ~ 커밋 후 apply)
+    private final AfterCommitBuffer<MemberChangedEvent> changes = new AfterCommitBuffer<>(this::apply, this::discard);
+    private long changeSeq;
+    private volatile boolean allStale = true;   // 처음 또는 벌크 연산 후
+    private volatile boolean loaded;            // DB에서 한 번이라도 읽었는지
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    public TeamStatsService(PlatformTransactionManager transactionManager) {
+        // 읽기 전용이면 복제본으로 라우팅될 수 있어서 일반 트랜잭션 (복제 지연이 있으면 틀린 값으로 맞추게 된다)
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public TeamStatsDto getStats(Long teamId) {
+        reconcileIfStale();
+        boolean stale;
+        synchronized (this) {
+            stale = staleTeams.contains(teamId);
+        }
+        if (stale) {
+            recalculate(teamId);
+        }
+        synchronized (this) {
+            Counters counter = counters.get(teamId);
+            return counter == null ? new TeamStatsDto(teamId, 0, 0, null, null) : counter.toDto(teamId);
+        }
+    }
+
+    // 회원이 있는 팀만 (팀 id 순)
+    public List<TeamStatsDto> getAllStats() {
+        reconcileIfStale();
+        List<Long> stale;
+        synchronized (this) {
+            stale = new ArrayList<>(staleTeams);
+        }
+        stale.forEach(this::recalculate);
+
+        List<TeamStatsDto> result = new ArrayList<>();
+        synchronized (this) {
+            counters.forEach((teamId, counter) -> result.add(counter.toDto(teamId)));
+        }
+        result.sort((a, b) -> Long.compare(a.getTeamId(), b.getTeamId()));
+        return result;
+    }
+
+    // flush 중(커밋 전)에 호출된다. 반영될 때까지 그 팀들은 reconcile, recalculate에서 건너뛴다.
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        synchronized (this) {
+            for (Long teamId : teamIds(event)) {
+                inFlight.merge(teamId, 1, Integer::sum);
+            }
+        }
+        changes.add(event);
+    }
+
+    // 롤백 - 바뀐 것은 없고 표시만 푼다.
+    private synchronized void discard(List<MemberChangedEvent> events) {
+        events.forEach(this::settle);
+    }
+
+    private void settle(MemberChangedEvent event) {
+        for (Long teamId : teamIds(event)) {
+            inFlight.computeIfPresent(teamId, (id, count) -> count > 1 ? count - 1 : null);
+            touch(teamId);
+        }
+    }
+
+    private Set<Long> teamIds(MemberChangedEvent event) {
+        Set<Long> teamIds = new HashSet<>();
+        if (event.getBefore() != null && event.getBefore().getTeamId() != null) {
+            teamIds.add(event.getBefore().getTeamId());
+        }
+        if (event.getAfter() != null && event.getAfter().getTeamId() != null) {
+            teamIds.add(event.getAfter().getTeamId());
+        }
+        return teamIds;
+    }
+
+    private synchronized void apply(List<MemberChangedEvent> events) {
+        boolean unknown = false;
+        for (MemberChangedEvent event : events) {
+            MemberChangedEvent.State before = event.getBefore();
+            MemberChangedEvent.State after = event.getAfter();
+            switch (event.getType()) {
+                case INSERT:
+                    add(after);
+                    break;
+                case DELETE:
+                    subtract(before);
+                    break;
+                case UPDATE:
+                    if (before == null || after == null) {  //값을 모름 (JDBC로 나이 변경)
+                        unknown = true;
+                    } else if (!Objects.equals(before.getTeamId(), after.getTeamId()) || before.getAge() != after.getAge()) {
+                        subtract(before);
+                        add(after);
+                    }
+                    break;
+                default:    //BULK_UPDATE
+                    unknown = true;
+            }
+            settle(event);
+        }
+        //JDBC 벌크 수정은 id마다 이벤트가 오지만 한 번만 표시
+        if (unknown) {
+            allStale = true;
+        }
+    }
+
+    private void add(MemberChangedEvent.State state) {
+        if (state == null || state.getTeamId() == null) {
+            return;
+        }
+        touch(state.getTeamId());
+        counters.computeIfAbsent(state.getTeamId(), id -> new Counters()).add(state.getAge());
+    }
+
+    private void subtract(MemberChangedEvent.State state) {
+        if (state == null || state.getTeamId() == null) {
+            return;
+        }
+        touch(state.getTeamId());
+        Counters counter = counters.get(state.getTeamId());
+        if (counter == null) {
+            staleTeams.add(state.getTeamId());
+            return;
+        }
+        if (!counter.subtract(state.getAge())) {
+            staleTeams.add(state.getTeamId());
+        }
+        if (counter.count <= 0) {
+            counters.remove(state.getTeamId());
+            staleTeams.remove(state.getTeamId());
+        }
+    }
+
+    private void touch(Long teamId) {
+        lastChanges.put(teamId, ++changeSeq);
+    }
+
+    // 조회를 시작한 뒤(startSeq 이후)에 이벤트로 바뀌었거나 아직 반영 안 된 변경이 있는 팀인지
+    private boolean changedSince(Long teamId, long startSeq) {
+        return inFlight.containsKey(teamId) || lastChanges.getOrDefault(teamId, 0L) > startSeq;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reconcile();
+    }
+
+    // 전체 다시 계산이 필요하면 한 스레드만 group by를 실행한다.
+    // 다른 요청 스레드는 기다리지 않고 이전 값을 응답한다. (아직 한 번도 읽지 않았으면 기다림)
+    private void reconcileIfStale() {
+        if (!allStale) {
+            return;
+        }
+        if (loaded) {
+            if (!reconcileLock.tryLock()) {
+                return;
+            }
+        } else {
+            reconcileLock.lock();
+        }
+        try {
+            if (allStale) {     //기다리는 동안 다른 스레드가 끝냈을 수 있음
+                doReconcile();
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    // DB의 group by 결과로 맞춘다. 조회하는 동안 이벤트로 바뀐 팀은 이벤트 값이 더 최신이므로 그대로 둔다.
+    @Scheduled(fixedDelayString = "${datajpa.team-stats.reconcile-interval-ms:60000}",
+            initialDelayString = "${datajpa.team-stats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            doReconcile();
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void doReconcile() {
+        long startSeq;
+        synchronized (this) {
+            startSeq = changeSeq;
+            allStale = false;
+        }
+        Map<Long, Counters> loaded = new HashMap<>();
+        try {
+            List<Object[]> rows = transactionTemplate.execute(status -> em.createQuery(
+                    GROUP_BY_TEAM + " group by m.team.id", Object[].class).getResultList());
+            for (Object[] row : rows) {
+                loaded.put((Long) row[0], Counters.of(row));
+            }
+        } catch (RuntimeException e) {
+            allStale = true;
+            throw e;
+        }
+
+        int fixed = 0;
+        synchronized (this) {
+            Set<Long> teamIds = new HashSet<>(counters.keySet());
+            teamIds.addAll(loaded.keySet());
+            for (Long teamId : teamIds) {
+                if (changedSince(teamId, startSeq)) {
+                    continue;
+                }
+                Counters expected = loaded.get(teamId);
+                Counters current = counters.get(teamId);
+                if (expected == null) {
+                    counters.remove(teamId);
+                    fixed++;
+                } else if (!expected.equals(current)) {
+                    counters.put(teamId, expected);
+                    fixed++;
+                }
+                staleTeams.remove(teamId);
+            }
+            lastChanges.keySet().removeIf(teamId -> !changedSince(teamId, startSeq));
+        }
+        loaded = true;
+        if (fixed > 0) {
+            log.info("팀 통계 - DB와 다른 팀 {}개를 맞춤", fixed);
+        }
+    }
+
+    // 팀 하나만 DB에서 다시 계산 (최소/최대인 회원이 빠졌을 때)
+    private void recalculate(Long teamId) {
+        long startSeq;
+        synchronized (this) {
+            startSeq = changeSeq;
+        }
+        Object[] row = transactionTemplate.execute(status -> em.createQuery(
+                        GROUP_BY_TEAM + " and m.team.id = :teamId group by m.team.id", Object[].class)
+                .setParameter("teamId", teamId)
+                .getResultStream().findFirst().orElse(null));
+        synchronized (this) {
+            if (changedSince(teamId, startSeq)) {  //그사이 바뀌었으면 다음 조회 때 다시
+                return;
+            }
+            staleTeams.remove(teamId);
+            if (row == null) {
+                counters.remove(teamId);
+            } else {
+                counters.put(teamId, Counters.of(row));
+            }
+        }
+    }
+
+    private static class Counters {
+        private long count;
+        private long sum;
+        private int min = Integer.MAX_VALUE;
+        private int max = Integer.MIN_VALUE;
+
+        static Counters of(Object[] row) {
+            Counters counters = new Counters();
+            counters.count = (Long) row[1];
+            counters.sum = ((Number) row[2]).longValue();
+            counters.min = (Integer) row[3];
+            counters.max = (Integer) row[4];
+            return counters;
+        }
+
+        void add(int age) {
+            count++;
+            sum += age;
+            min = Math.min(min, age);
+            max = Math.max(max, age);
+        }
+
+        // 최소/최대가 빠지면 false (다시 계산 필요)
+        boolean subtract(int age) {
+            count--;
+            sum -= age;
+            return count <= 0 || (age != min && age != max);
+        }
+
+        TeamStatsDto toDto(Long teamId) {
+            return new TeamStatsDto(teamId, count, sum, count == 0 ? null : min, count == 0 ? null : max);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Counters)) {
+                return false;
+            }
+            Counters other = (Counters) o;
+            return count == other.count && sum == other.sum && min == other.min && max == other.max;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(count * 31 + sum);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// 트랜잭션 안에서 생긴 변경을 모아뒀다가 커밋된 뒤에 한 번에 반영한다. (롤백되면 버림)
+// 이벤트마다 TransactionSynchronization을 등록하지 않고 트랜잭션당 하나만 등록한다.
+// 트랜잭션 밖이면 바로 반영
+public class AfterCommitBuffer<E> {
+
+    private final Consumer<List<E>> onCommit;
+    private final Consumer<List<E>> onRollback;
+
+    public AfterCommitBuffer(Consumer<List<E>> onCommit) {
+        this(onCommit, changes -> { });
+    }
+
+    // onRollback - 롤백되어 버려지는 변경 (커밋 전에 표시해둔 것을 풀어야 할 때)
+    public AfterCommitBuffer(Consumer<List<E>> onCommit, Consumer<List<E>> onRollback) {
+        this.onCommit = onCommit;
+        this.onRollback = onRollback;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void add(E change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.accept(List.of(change));
+            return;
+        }
+        List<E> buffer = (List<E>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new BufferSynchronization(buffer));
+        }
+        buffer.add(change);
+    }
+
+    // REQUIRES_NEW로 바깥 트랜잭션이 잠시 멈추면 버퍼도 같이 떼어뒀다가 다시 붙인다. (안쪽 트랜잭션은 자기 버퍼 사용)
+    private class BufferSynchronization implements TransactionSynchronization {
+
+        private final List<E> buffer;
+
+        BufferSynchronization(List<E> buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AfterCommitBuffer.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(AfterCommitBuffer.this, buffer);
+        }
+
+        @Override
+        public void afterCommit() {
+            onCommit.accept(buffer);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AfterCommitBuffer.this);
+            if (status != STATUS_COMMITTED) {
+                onRollback.accept(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.support;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.AuditorAware;
+import study.datajpa.entity.BaseEntity;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditConfig {
+
+    // 등록되거나 수정될 때마다 호출된다. (BaseEntity의 createdBy, lastModifiedBy)
+    @Bean
+    public AuditorAware<String> auditorProvider(AuditProperties properties) {
+        if (properties.getMode() == AuditProperties.Mode.UUID) {
+            return () -> Optional.of(UUID.randomUUID().toString());
+        }
+        AuditorHolder.setDefault(properties.getDefaultAuditor());
+        return AuditorHolder::current;
+    }
+
+    @Bean
+    public AuditorFilter auditorFilter(AuditProperties properties) {
+        return new AuditorFilter(properties.getHeader(), BaseEntity.AUDITOR_LENGTH);
+    }
+}
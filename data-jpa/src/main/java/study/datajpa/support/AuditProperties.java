@@ -0,0 +1,20 @@
+package study.datajpa.support;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties("datajpa.audit")
+public class AuditProperties {
+
+    public enum Mode {
+        REQUEST,    // 요청/배치마다 한번 정한 사용자 (AuditorHolder)
+        UUID        // 예전 방식 - 저장할 때마다 UUID.randomUUID() (비교용)
+    }
+
+    private Mode mode = Mode.REQUEST;
+    // 사용자를 꺼낼 요청 헤더 (숫자 id처럼 짧은 값을 권장)
+    private String header = "X-User-Id";
+    private String defaultAuditor = "system";
+}
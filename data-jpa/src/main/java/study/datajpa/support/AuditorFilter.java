@@ -0,0 +1,41 @@
+package study.datajpa.support;
+
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// 요청 헤더에서 사용자를 한번만 꺼내 AuditorHolder에 넣어둔다. (없으면 기본 사용자)
+// 인증을 붙이면 헤더 대신 인증된 사용자의 id를 넣으면 된다.
+public class AuditorFilter extends OncePerRequestFilter {
+
+    private final String header;
+    private final int maxLength;
+
+    public AuditorFilter(String header, int maxLength) {
+        this.header = header;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String auditor = request.getHeader(header);
+        if (!StringUtils.hasText(auditor)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        auditor = auditor.trim();
+        AuditorHolder.set(auditor.length() > maxLength ? auditor.substring(0, maxLength) : auditor);  //컬럼 길이에 맞춤
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            AuditorHolder.clear();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package study.datajpa.support;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// 현재 등록자/수정자 - 요청(AuditorFilter)이나 배치 작업(runAs) 시작할 때 한번만 정해두고
+// 엔티티가 저장될 때마다(AuditingEntityListener) 같은 값을 꺼내간다. (Optional도 미리 만들어 둠)
+// 같은 사용자는 같은 String 인스턴스를 쓰도록 intern 한다.
+public final class AuditorHolder {
+
+    private static final ThreadLocal<Optional<String>> CURRENT = new ThreadLocal<>();
+    private static volatile Optional<String> defaultAuditor = Optional.of("system");
+
+    private AuditorHolder() {
+    }
+
+    // 정해진 사용자가 없으면 기본값
+    public static Optional<String> current() {
+        Optional<String> auditor = CURRENT.get();
+        return auditor != null ? auditor : defaultAuditor;
+    }
+
+    public static void set(String auditor) {
+        CURRENT.set(Optional.of(auditor.intern()));
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // 배치 작업 등 요청 밖에서 사용자를 지정할 때
+    public static <T> T runAs(String auditor, Supplier<T> work) {
+        Optional<String> previous = CURRENT.get();
+        set(auditor);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    static void setDefault(String auditor) {
+        defaultAuditor = Optional.of(auditor.intern());
+    }
+}
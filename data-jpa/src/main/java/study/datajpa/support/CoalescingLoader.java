@@ -0,0 +1,106 @@
+package study.datajpa.support;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+// 여러 요청이 동시에 id로 조회할 때 한 번의 조회로 합친다.
+//  - 같은 id를 이미 조회 중이면 그 결과(future)를 같이 기다린다.
+//  - window 동안 들어온 id들을 모아서 batchLoader 한 번(in 쿼리)으로 조회한다. (최대 maxBatch개씩)
+// 조회는 loadExecutor에서 실행되고, 결과가 없는 id는 null로 완료된다.
+public class CoalescingLoader<ID, T> {
+
+    private final Function<Set<ID>, Map<ID, T>> batchLoader;
+    private final Executor loadExecutor;
+    private final long windowMicros;
+    private final int maxBatch;
+
+    private final Map<ID, CompletableFuture<T>> inflight = new ConcurrentHashMap<>();
+    private final Queue<ID> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coalescing-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CoalescingLoader(Function<Set<ID>, Map<ID, T>> batchLoader, Executor loadExecutor, long windowMicros, int maxBatch) {
+        this.batchLoader = batchLoader;
+        this.loadExecutor = loadExecutor;
+        this.windowMicros = windowMicros;
+        this.maxBatch = maxBatch;
+    }
+
+    public CompletableFuture<T> load(ID id) {
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<T> existing = inflight.putIfAbsent(id, created);
+        if (existing != null) {
+            return existing;
+        }
+        pending.add(id);
+        if (scheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::dispatch, windowMicros, TimeUnit.MICROSECONDS);
+        }
+        return created;
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    // 모인 id를 maxBatch개씩 잘라서 조회를 맡긴다.
+    private void dispatch() {
+        scheduled.set(false);
+        Set<ID> batch = new LinkedHashSet<>();
+        ID id;
+        while (batch.size() < maxBatch && (id = pending.poll()) != null) {
+            batch.add(id);
+        }
+        if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::dispatch);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            loadExecutor.execute(() -> loadBatch(batch));
+        } catch (RuntimeException e) {     //대기 작업이 너무 많으면 거절
+            batch.forEach(batchId -> complete(batchId, null, e));
+        }
+    }
+
+    private void loadBatch(Set<ID> batch) {
+        Map<ID, T> loaded;
+        try {
+            loaded = batchLoader.apply(Collections.unmodifiableSet(batch));
+        } catch (RuntimeException e) {
+            batch.forEach(id -> complete(id, null, e));
+            return;
+        }
+        batch.forEach(id -> complete(id, loaded.get(id), null));
+    }
+
+    private void complete(ID id, T value, Throwable error) {
+        CompletableFuture<T> future = inflight.remove(id);
+        if (future == null) {
+            return;
+        }
+        if (error != null) {
+            future.completeExceptionally(error);
+        } else {
+            future.complete(value);
+        }
+    }
+}
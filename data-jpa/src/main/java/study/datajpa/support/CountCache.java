@@ -0,0 +1,73 @@
+package study.datajpa.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// 페이지 totalCount를 잠깐(ttl) 저장해두고 재사용한다. 키는 영역(엔티티) + 쿼리/파라미터
+// 회원이 바뀌면(MemberChangedEvent) Member 영역을 비운다. - 바로 한 번 + 커밋된 뒤에 한 번
+// 커밋 전에만 비우면 그 사이에 다른 요청이 센 이전 값이 ttl 동안 남는다. (바로 비우는 건 같은 트랜잭션 안에서 다시 셀 때를 위해)
+@Component
+public class CountCache {
+
+    public static final String MEMBER = "Member";
+
+    private final long ttlNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final AfterCommitBuffer<String> committed = new AfterCommitBuffer<>(regions -> new HashSet<>(regions).forEach(this::invalidate));
+
+    public CountCache(@Value("${datajpa.count-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    public long get(String region, String key, LongSupplier counter) {
+        String cacheKey = region + ":" + key;
+        long now = System.nanoTime();
+        Entry entry = entries.get(cacheKey);
+        if (entry != null && now - entry.createdAt < ttlNanos) {
+            return entry.count;
+        }
+
+        // count 하는 도중에 비워졌으면 저장하지 않는다.
+        AtomicLong generation = generation(region);
+        long before = generation.get();
+        long count = counter.getAsLong();
+        if (generation.get() == before) {
+            entries.put(cacheKey, new Entry(count, now));
+        }
+        return count;
+    }
+
+    public void invalidate(String region) {
+        generation(region).incrementAndGet();
+        entries.keySet().removeIf(key -> key.startsWith(region + ":"));
+    }
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        // 수정은 전체 건수에 영향이 없지만 조건(나이 등)이 있는 count는 달라질 수 있다.
+        invalidate(MEMBER);
+        committed.add(MEMBER);
+    }
+
+    private AtomicLong generation(String region) {
+        return generations.computeIfAbsent(region, r -> new AtomicLong());
+    }
+
+    private static class Entry {
+        private final long count;
+        private final long createdAt;
+
+        Entry(long count, long createdAt) {
+            this.count = count;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.support;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// bulkAgePlus는 영속성 컨텍스트를 거치지 않아서 하이버네이트 이벤트가 발생하지 않는다.
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberBulkUpdateAspect {
+
+    private final ApplicationEventPublisher publisher;
+
+    @AfterReturning("execution(* study.datajpa.repository.MemberRepository.bulkAgePlus(..))" +
+            " || execution(* study.datajpa.repository.MemberJpaRepository.bulkAgePlus(..))")
+    public void afterBulkUpdate() {
+        publisher.publishEvent(MemberChangedEvent.bulkUpdate());
+    }
+}
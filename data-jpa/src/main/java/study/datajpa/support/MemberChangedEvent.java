@@ -0,0 +1,52 @@
+package study.datajpa.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+// 회원이 저장/수정/삭제되었을 때 발행되는 스프링 이벤트 (MemberEventBridge, MemberBulkUpdateAspect)
+// 트랜잭션 안에서 바로 발행된다. (커밋 전) 커밋된 뒤에 반영하려면 AfterCommitBuffer
+@Getter
+@ToString
+public class MemberChangedEvent {
+
+    public enum Type {
+        INSERT, UPDATE, DELETE,
+        BULK_UPDATE     // bulkAgePlus 같은 벌크 연산 - 어떤 회원이 바뀌었는지 모름
+    }
+
+    private final Type type;
+    private final Long memberId;    // BULK_UPDATE면 null
+    // 변경 전/후 값 - insert면 before, delete면 after가 null
+    // JDBC로 직접 바꾼 경우처럼 값을 모르면 둘 다 null (필요하면 다시 조회)
+    private final State before;
+    private final State after;
+
+    public MemberChangedEvent(Type type, Long memberId) {
+        this(type, memberId, null, null);
+    }
+
+    public MemberChangedEvent(Type type, Long memberId, State before, State after) {
+        this.type = type;
+        this.memberId = memberId;
+        this.before = before;
+        this.after = after;
+    }
+
+    public static MemberChangedEvent bulkUpdate() {
+        return new MemberChangedEvent(Type.BULK_UPDATE, null);
+    }
+
+    @Getter
+    @ToString
+    public static class State {
+        private final String username;
+        private final int age;
+        private final Long teamId;
+
+        public State(String username, int age, Long teamId) {
+            this.username = username;
+            this.age = age;
+            this.teamId = teamId;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package study.datajpa.support;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.tuple.entity.EntityMetamodel;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+// 하이버네이트가 회원 insert/update/delete SQL을 실행한 직후 MemberChangedEvent를 발행한다.
+// 엔티티를 거치지 않는 벌크 연산은 하이버네이트 이벤트가 없으므로 MemberBulkUpdateAspect가 따로 발행한다.
+@Component
+@RequiredArgsConstructor
+public class MemberEventBridge implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory emf;
+    private final ApplicationEventPublisher publisher;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            publisher.publishEvent(new MemberChangedEvent(MemberChangedEvent.Type.INSERT, (Long) event.getId(),
+                    null, state(event.getPersister(), event.getState())));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member) {
+            publisher.publishEvent(new MemberChangedEvent(MemberChangedEvent.Type.UPDATE, (Long) event.getId(),
+                    state(event.getPersister(), event.getOldState()), state(event.getPersister(), event.getState())));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            publisher.publishEvent(new MemberChangedEvent(MemberChangedEvent.Type.DELETE, (Long) event.getId(),
+                    state(event.getPersister(), event.getDeletedState()), null));
+        }
+    }
+
+    // 하이버네이트의 상태 배열(프로퍼티 순서)에서 필요한 값만 꺼낸다. (merge 없이 update 된 경우 변경 전 값은 null)
+    private MemberChangedEvent.State state(EntityPersister persister, Object[] values) {
+        if (values == null) {
+            return null;
+        }
+        EntityMetamodel metamodel = persister.getEntityMetamodel();
+        Object age = values[metamodel.getPropertyIndex("age")];
+        return new MemberChangedEvent.State(
+                (String) values[metamodel.getPropertyIndex("username")],
+                age == null ? 0 : (Integer) age,
+                teamId(values[metamodel.getPropertyIndex("team")]));
+    }
+
+    // 프록시면 초기화하지 않고 id만 꺼낸다.
+    private Long teamId(Object team) {
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return ((Team) team).getId();
+    }
+
+    // 커밋 후 처리는 필요 없음
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+}
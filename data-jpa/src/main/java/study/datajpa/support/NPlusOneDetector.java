@@ -0,0 +1,78 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 하이버네이트가 SQL을 실행하기 직전에 호출된다.
+// 요청(또는 트랜잭션)별로 SQL 수를 세고, 같은 모양의 select가 threshold번 반복되면 (member.getTeam().getName() 같은 지연 로딩 반복) 알려준다.
+@Slf4j
+public class NPlusOneDetector implements StatementInspector {
+
+    private static final Pattern FROM_TABLE = Pattern.compile("\\bfrom\\s+(\\w+)");
+
+    private final NPlusOneProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public NPlusOneDetector(NPlusOneProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        QueryCount count = QueryCountHolder.current();
+        if (count == null) {
+            count = openTransactionScope();
+            if (count == null) {
+                return sql;     //요청도 트랜잭션도 아님 - 세지 않는다.
+            }
+        }
+        int repeated = count.record(sql);
+        // 같은 모양은 한 번만 알림
+        if (properties.isEnabled() && repeated == properties.getThreshold()) {
+            report(sql, repeated);
+        }
+        return sql;
+    }
+
+    // HTTP 요청 밖(스케줄러, 비동기, ApplicationRunner)에서는 트랜잭션 하나를 범위로 센다. 트랜잭션이 끝나면 버린다.
+    // 범위가 이미 있으면(요청 안의 트랜잭션, REQUIRES_NEW 안쪽 트랜잭션) 바깥 범위에 이어서 센다.
+    private QueryCount openTransactionScope() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        QueryCount count = QueryCountHolder.reset();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                QueryCountHolder.clear();
+            }
+        });
+        return count;
+    }
+
+    private void report(String sql, int repeated) {
+        switch (properties.getMode()) {
+            case FAIL:
+                throw new NPlusOneException("N+1 의심 - 같은 쿼리가 " + repeated + "번 실행됨: " + sql);
+            case METRIC:
+                meterRegistry.ifAvailable(registry -> registry.counter("datajpa.n_plus_one", "table", table(sql)).increment());
+                break;
+            default:
+                log.warn("N+1 의심 - 같은 쿼리가 {}번 실행됨 (fetch join, @EntityGraph, batch size 확인): {}", repeated, sql);
+        }
+    }
+
+    private String table(String sql) {
+        Matcher matcher = FROM_TABLE.matcher(sql.toLowerCase(Locale.ROOT));
+        return matcher.find() ? matcher.group(1) : "unknown";
+    }
+}
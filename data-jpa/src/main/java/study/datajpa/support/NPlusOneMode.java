@@ -0,0 +1,8 @@
+package study.datajpa.support;
+
+// N+1 의심 쿼리를 발견했을 때 동작
+public enum NPlusOneMode {
+    LOG,        // 경고 로그
+    METRIC,     // datajpa.n_plus_one 카운터 증가
+    FAIL        // NPlusOneException (테스트용)
+}
@@ -0,0 +1,15 @@
+package study.datajpa.support;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties("datajpa.n-plus-one")
+public class NPlusOneProperties {
+
+    private boolean enabled = true;
+    private NPlusOneMode mode = NPlusOneMode.LOG;
+    // 같은 select가 한 요청 안에서 이 횟수만큼 실행되면 N+1로 본다.
+    private int threshold = 5;
+}
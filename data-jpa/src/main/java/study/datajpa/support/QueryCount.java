@@ -0,0 +1,55 @@
+package study.datajpa.support;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// 한 요청(또는 테스트) 동안 실행된 SQL 수
+// select는 모양(SQL 문자열)별로 몇 번 실행됐는지도 센다. 같은 select가 여러 번 = 지연 로딩 N+1 의심
+public class QueryCount {
+
+    // 배치처럼 오래 도는 스레드에서 모양이 끝없이 쌓이지 않도록 제한
+    private static final int MAX_SHAPES = 1_000;
+
+    private int total;
+    private String lastSql;
+    private final Map<String, Integer> selects = new HashMap<>();
+
+    // 반환값 - 같은 모양의 select가 지금까지 몇 번 실행됐는지 (select가 아니면 0)
+    int record(String sql) {
+        total++;
+        lastSql = sql;
+        if (!isSelect(sql)) {
+            return 0;
+        }
+        if (selects.size() >= MAX_SHAPES && !selects.containsKey(sql)) {
+            selects.clear();
+        }
+        return selects.merge(sql, 1, Integer::sum);
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    // 마지막으로 실행된 SQL (update가 어떤 컬럼을 쓰는지 확인할 때)
+    public String getLastSql() {
+        return lastSql;
+    }
+
+    // 가장 많이 반복된 select의 실행 횟수
+    public int getMaxRepeatedSelects() {
+        int max = 0;
+        for (int count : selects.values()) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    private boolean isSelect(String sql) {
+        int i = 0;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return sql.regionMatches(true, i, "select", 0, 6);
+    }
+}
@@ -0,0 +1,34 @@
+package study.datajpa.support;
+
+// 스레드별 QueryCount 보관 (요청 하나 = 스레드 하나)
+// 세는 범위 - HTTP 요청(QueryCountFilter), reset()~clear() 사이, 그 밖에서는 트랜잭션 하나 (NPlusOneDetector가 연다)
+// 범위 밖의 SQL은 세지 않는다. (스케줄러, 비동기 스레드처럼 오래 사는 스레드에서 횟수가 계속 쌓이지 않도록)
+public final class QueryCountHolder {
+
+    private static final ThreadLocal<QueryCount> HOLDER = new ThreadLocal<>();
+
+    private QueryCountHolder() {
+    }
+
+    // 범위가 없으면 빈 값 (저장하지 않음)
+    public static QueryCount get() {
+        QueryCount count = HOLDER.get();
+        return count != null ? count : new QueryCount();
+    }
+
+    // 지금 열려 있는 범위 (없으면 null)
+    static QueryCount current() {
+        return HOLDER.get();
+    }
+
+    // 지금부터 다시 센다.
+    public static QueryCount reset() {
+        QueryCount count = new QueryCount();
+        HOLDER.set(count);
+        return count;
+    }
+
+    public static void clear() {
+        HOLDER.remove();
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(NPlusOneProperties.class)
+public class QueryInspectionConfig {
+
+    @Bean
+    public NPlusOneDetector nPlusOneDetector(NPlusOneProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new NPlusOneDetector(properties, meterRegistry);
+    }
+
+    // hibernate.session_factory.statement_inspector 에 빈을 그대로 넘긴다.
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(NPlusOneDetector nPlusOneDetector) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, nPlusOneDetector);
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter() {
+        return new QueryCountFilter();
+    }
+}
@@ -0,0 +1,257 @@
+package study.datajpa.support;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+// 배포 직후 첫 요청들이 느리지 않도록 시작할 때 리포지토리 쿼리 메소드를 미리 준비한다.
+//  @Query, 네임드 쿼리 - JPQL -> SQL 변환(쿼리 플랜)을 plan cache에 올리고 문법/엔티티 이름을 검증
+//  메소드 이름 쿼리 - 호출할 때 JPQL이 만들어지므로 execute 모드에서만 준비된다.
+// execute 모드는 기본 파라미터("", 0, 첫 페이지)로 한 번씩 실행하고 롤백한다. 벌크 수정, 락, 비동기 메소드는 제외
+// ApplicationRunner는 readiness(ACCEPTING_TRAFFIC)보다 먼저 끝나기 때문에 준비가 끝난 뒤에 트래픽을 받는다.
+@Slf4j
+public class QueryWarmUp implements ApplicationRunner {
+
+    public enum Status { OK, SKIPPED, FAILED }
+
+    private final ApplicationContext applicationContext;
+    private final EntityManagerFactory emf;
+    private final TransactionTemplate transactionTemplate;
+    private final QueryWarmUpProperties properties;
+
+    public QueryWarmUp(ApplicationContext applicationContext, EntityManagerFactory emf,
+                       PlatformTransactionManager transactionManager, QueryWarmUpProperties properties) {
+        this.applicationContext = applicationContext;
+        this.emf = emf;
+        // 읽기 전용으로 하면 복제본으로 라우팅될 수 있어서 일반 트랜잭션 + 롤백
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Result> results = warmUp();
+        results.sort(Comparator.comparingLong(Result::getTotalNanos).reversed());
+        for (Result result : results) {
+            log.debug("쿼리 준비 {}", result);
+            if (result.getStatus() == Status.FAILED) {
+                log.warn("쿼리 준비 실패 {}", result);
+            }
+        }
+        log.info("쿼리 준비 완료 - {}개, {}ms (가장 오래 걸린 쿼리: {})", results.size(),
+                (System.nanoTime() - start) / 1_000_000, results.isEmpty() ? "-" : results.get(0));
+        QueryCountHolder.clear();
+    }
+
+    public List<Result> warmUp() {
+        List<Result> results = new ArrayList<>();
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElse(null);
+            for (Method method : information.getQueryMethods()) {
+                results.add(warmUp(domainType, repository, method));
+            }
+        }
+        return results;
+    }
+
+    private Result warmUp(Class<?> domainType, Object repository, Method method) {
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        long compileNanos;
+        try {
+            compileNanos = compile(domainType, method);
+        } catch (RuntimeException e) {
+            return new Result(name, Status.FAILED, 0, 0, e.getMessage());
+        }
+
+        if (!properties.isExecute() || repository == null) {
+            return new Result(name, Status.OK, compileNanos, 0, null);
+        }
+        String skipReason = skipReason(method);
+        if (skipReason != null) {
+            return new Result(name, Status.SKIPPED, compileNanos, 0, skipReason);
+        }
+        Object[] args = defaultArguments(method);
+        if (args == null) {
+            return new Result(name, Status.SKIPPED, compileNanos, 0, "기본 파라미터를 만들 수 없음");
+        }
+
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                close(invoke(repository, method, args));
+            });
+            return new Result(name, Status.OK, compileNanos, System.nanoTime() - start, null);
+        } catch (RuntimeException e) {
+            return new Result(name, Status.FAILED, compileNanos, System.nanoTime() - start, e.getMessage());
+        }
+    }
+
+    // @Query와 네임드 쿼리는 JPQL을 알 수 있으므로 EntityManager로 컴파일해본다. (0이면 메소드 이름 쿼리)
+    private long compile(Class<?> domainType, Method method) {
+        Query query = method.getAnnotation(Query.class);
+        EntityManager em = emf.createEntityManager();
+        try {
+            long start = System.nanoTime();
+            if (query != null && !query.nativeQuery()) {
+                if (!query.value().isEmpty()) {
+                    em.createQuery(query.value());
+                }
+                if (!query.countQuery().isEmpty()) {
+                    em.createQuery(query.countQuery());
+                }
+                if (!query.name().isEmpty()) {
+                    em.createNamedQuery(query.name());
+                }
+            } else if (query == null && hasNamedQuery(em, domainType.getSimpleName() + "." + method.getName())) {
+                em.createNamedQuery(domainType.getSimpleName() + "." + method.getName());
+            } else {
+                return 0;
+            }
+            return System.nanoTime() - start;
+        } finally {
+            em.close();
+        }
+    }
+
+    private boolean hasNamedQuery(EntityManager em, String name) {
+        try {
+            em.createNamedQuery(name);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String skipReason(Method method) {
+        if (method.isAnnotationPresent(Modifying.class)) {
+            return "@Modifying";
+        }
+        if (method.isAnnotationPresent(Lock.class)) {
+            return "@Lock";
+        }
+        if (Future.class.isAssignableFrom(method.getReturnType())) {
+            return "비동기";
+        }
+        return null;
+    }
+
+    private Object[] defaultArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Object arg = defaultValue(types[i], ResolvableType.forMethodParameter(method, i));
+            if (arg == null) {
+                return null;
+            }
+            args[i] = arg;
+        }
+        return args;
+    }
+
+    private Object defaultValue(Class<?> type, ResolvableType resolvableType) {
+        if (type == String.class) {
+            return "";
+        }
+        if (type == int.class || type == Integer.class) {
+            return 0;
+        }
+        if (type == long.class || type == Long.class) {
+            return 0L;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return false;
+        }
+        if (Pageable.class.isAssignableFrom(type)) {
+            return PageRequest.of(0, 1);
+        }
+        if (type == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (type == Collection.class || type == List.class || type == Set.class) {
+            Class<?> elementType = resolvableType.asCollection().resolveGeneric(0);
+            Object element = elementType == null ? null : defaultValue(elementType, ResolvableType.forClass(elementType));
+            if (element == null) {
+                return null;
+            }
+            return type == Set.class ? Set.of(element) : List.of(element);
+        }
+        return null;
+    }
+
+    private Object invoke(Object repository, Method method, Object[] args) {
+        try {
+            return method.invoke(repository, args);
+        } catch (ReflectiveOperationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+    }
+
+    // Stream 반환 메소드는 닫아줘야 커서가 정리된다.
+    private void close(Object result) {
+        if (result instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) result).close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Getter
+    public static class Result {
+        private final String method;
+        private final Status status;
+        private final long compileNanos;
+        private final long executeNanos;
+        private final String message;
+
+        Result(String method, Status status, long compileNanos, long executeNanos, String message) {
+            this.method = method;
+            this.status = status;
+            this.compileNanos = compileNanos;
+            this.executeNanos = executeNanos;
+            this.message = message;
+        }
+
+        public long getTotalNanos() {
+            return compileNanos + executeNanos;
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + status + " (컴파일 " + compileNanos / 1_000 + "us, 실행 " + executeNanos / 1_000 + "us)"
+                    + (message == null ? "" : " " + message);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.support;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+@EnableConfigurationProperties(QueryWarmUpProperties.class)
+public class QueryWarmUpConfig {
+
+    @Bean
+    public QueryWarmUp queryWarmUp(ApplicationContext applicationContext, EntityManagerFactory emf,
+                                   PlatformTransactionManager transactionManager, QueryWarmUpProperties properties) {
+        return new QueryWarmUp(applicationContext, emf, transactionManager, properties);
+    }
+}
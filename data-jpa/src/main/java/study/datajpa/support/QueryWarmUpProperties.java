@@ -0,0 +1,15 @@
+package study.datajpa.support;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties("datajpa.warm-up")
+public class QueryWarmUpProperties {
+
+    private boolean enabled = true;
+    // 컴파일만 하지 않고 기본 파라미터로 실제 한 번 실행 (롤백되는 트랜잭션)
+    // 메소드 이름 쿼리는 실행해야 JPQL이 만들어지고, JDBC prepare, 클래스 로딩까지 미리 끝난다.
+    private boolean execute = false;
+}
@@ -0,0 +1,75 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+// /members/{id} (요청마다 findById) vs /members2/{id} (캐시 + 동시 요청 합치기)
+// 1000개 요청을 동시에 보내고 SQL 수와 응답 시간(p50, p99)을 비교  ./gradlew benchmarkTest
+// id는 치우친 분포 - 앞쪽 몇 개 id에 요청이 몰린다. (-Dbench.requests, -Dbench.skew로 조절)
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class DomainConverterLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 1_000);
+    private static final double SKEW = Double.parseDouble(System.getProperty("bench.skew", "3.0"));
+
+    @LocalServerPort int port;
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    public void burstOfConcurrentLookups() {
+        List<Long> ids = new ArrayList<>();
+        memberRepository.findAll().forEach(member -> ids.add(member.getId()));
+        List<Long> requestIds = skewed(ids);
+        HttpClient client = HttpClient.newHttpClient();
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        for (String path : new String[]{"/members/", "/members2/"}) {
+            emf.getCache().evict(Member.class);     //매번 캐시가 빈 상태에서 시작
+            statistics.clear();
+
+            List<CompletableFuture<Long>> responses = new ArrayList<>();
+            for (Long id : requestIds) {
+                long start = System.nanoTime();
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path + id)).build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .thenApply(response -> System.nanoTime() - start));
+            }
+            long[] latencies = responses.stream().mapToLong(CompletableFuture::join).sorted().toArray();
+
+            System.out.printf("%s - 요청 %d, SQL %d, p50 = %.2f ms, p99 = %.2f ms%n", path, REQUESTS,
+                    statistics.getPrepareStatementCount(),
+                    latencies[latencies.length / 2] / 1_000_000.0,
+                    latencies[(int) (latencies.length * 0.99)] / 1_000_000.0);
+        }
+    }
+
+    // 0에 가까운 인덱스일수록 자주 나오는 분포 (u^skew)
+    private List<Long> skewed(List<Long> ids) {
+        Random random = new Random(42);
+        List<Long> result = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = (int) (Math.pow(random.nextDouble(), SKEW) * ids.size());
+            result.add(ids.get(index));
+        }
+        return result;
+    }
+}
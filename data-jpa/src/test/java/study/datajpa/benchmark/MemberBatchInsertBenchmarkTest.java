@@ -0,0 +1,61 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+// saveAll vs saveAllBatched 초당 저장 건수 비교  ./gradlew benchmarkTest -Dbench.rows=1000000
+// saveAll은 전부 영속성 컨텍스트에 쌓기 때문에 100만건이면 -Xmx를 넉넉히 줘야 한다.
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class MemberBatchInsertBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 100_000);
+    private static final int CHUNK = 100;   // hibernate.jdbc.batch_size와 동일
+
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void saveAll() {
+        List<Member> members = createMembers();
+
+        long start = System.nanoTime();
+        memberRepository.saveAll(members);
+        em.flush();     //실제 insert는 flush 시점에 나간다.
+        print("saveAll", System.nanoTime() - start);
+    }
+
+    @Test
+    public void saveAllBatched() {
+        List<Member> members = createMembers();
+
+        long start = System.nanoTime();
+        memberRepository.saveAllBatched(members, CHUNK);
+        print("saveAllBatched", System.nanoTime() - start);
+    }
+
+    private List<Member> createMembers() {
+        List<Member> members = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            members.add(new Member("bench" + i, i % 100));
+        }
+        return members;
+    }
+
+    private void print(String name, long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        System.out.printf("%s: rows = %d, %.2f s, %.0f rows/sec%n", name, ROWS, seconds, ROWS / seconds);
+    }
+}
@@ -0,0 +1,73 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+// offset 페이징 vs 커서 페이징 속도 비교  ./gradlew benchmarkTest
+// 데이터 수는 -Dbench.rows=100000 으로 조절
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class MemberPagingBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 50_000);
+    private static final int PAGE_SIZE = 20;
+    private static final int REPEAT = 20;
+
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void deepOffsetVsCursor() {
+        for (int i = 0; i < ROWS; i++) {
+            em.persist(new Member("bench" + i, i % 100));
+            if (i % 1000 == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+
+        long total = memberRepository.count();
+        for (long offset : new long[]{0, 1_000, 10_000, total / 2, total - PAGE_SIZE}) {
+            int page = (int) (offset / PAGE_SIZE);
+            //커서 방식은 해당 offset 바로 앞의 id를 커서로 사용 (측정 시간에는 포함 x)
+            Long cursor = page == 0 ? null : em.createQuery("select m.id from Member m order by m.id", Long.class)
+                    .setFirstResult(page * PAGE_SIZE - 1)
+                    .setMaxResults(1)
+                    .getSingleResult();
+
+            long offsetNanos = measure(() -> memberRepository.findAll(PageRequest.of(page, PAGE_SIZE, Sort.by("id")))
+                    .map(MemberDto::new).getContent());
+            long cursorNanos = measure(() -> memberRepository.findMemberByCursor(cursor, PAGE_SIZE + 1));
+
+            System.out.printf("page = %d, offset = %.3f ms, cursor = %.3f ms%n",
+                    page, offsetNanos / 1_000_000.0, cursorNanos / 1_000_000.0);
+        }
+    }
+
+    //평균 시간 (영속성 컨텍스트를 비워서 매번 DB에서 읽도록)
+    private long measure(Runnable query) {
+        query.run();    //워밍업
+        em.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < REPEAT; i++) {
+            query.run();
+            em.clear();
+        }
+        return (System.nanoTime() - start) / REPEAT;
+    }
+}
@@ -0,0 +1,74 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+// 엔티티 조회 후 DTO 변환 vs DTO 직접 조회 - 처리 시간과 메모리 할당량 비교  ./gradlew benchmarkTest
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class MemberProjectionBenchmarkTest {
+
+    private static final int ROWS = 10_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int REPEAT = 200;
+
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void entityVsProjection() {
+        Team[] teams = new Team[100];
+        for (int i = 0; i < teams.length; i++) {
+            teams[i] = new Team("team" + i);
+            em.persist(teams[i]);
+        }
+        for (int i = 0; i < ROWS; i++) {
+            em.persist(new Member("bench" + i, i % 100, teams[i % teams.length]));
+        }
+        em.flush();
+        em.clear();
+
+        //기존 방식 - 엔티티 조회 후 변환 (팀 이름을 채우려면 팀 프록시를 초기화해야 한다)
+        measure("entity", () -> memberRepository.findAll(PageRequest.of(0, PAGE_SIZE))
+                .map(member -> new MemberDto(member.getId(), member.getUsername(), member.getTeam().getName())));
+        //DTO 직접 조회
+        measure("projection", () -> memberRepository.findMemberDtoPage(PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    private void measure(String name, Supplier<?> query) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < 20; i++) {  //워밍업
+            query.get();
+            em.clear();
+        }
+
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < REPEAT; i++) {
+            query.get();
+            em.clear();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%s: %.3f ms/page, %.0f pages/sec, %d KB allocated/page%n", name,
+                elapsed / 1_000_000.0 / REPEAT, REPEAT / (elapsed / 1_000_000_000.0), allocated / REPEAT / 1024);
+    }
+}
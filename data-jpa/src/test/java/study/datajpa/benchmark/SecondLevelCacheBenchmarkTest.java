@@ -0,0 +1,79 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// 2차 캐시 적용 전후 findById p99 비교  ./gradlew benchmarkTest
+// 요청마다 새 트랜잭션(영속성 컨텍스트)이므로 컨트롤러의 findMember와 같은 조건이다.
+@Tag("benchmark")
+@SpringBootTest
+class SecondLevelCacheBenchmarkTest {
+
+    private static final int MEMBERS = 1_000;
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 20_000);
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManagerFactory emf;
+
+    List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllInBatch(members);
+        emf.getCache().evictAll();
+    }
+
+    @Test
+    public void findByIdP99() {
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(new Member("cache" + i, i % 100));
+        }
+        memberRepository.saveAllBatched(members, 100);
+
+        //일부 회원에게 요청이 몰리는 분포 (앞쪽 id일수록 자주 조회)
+        Random random = new Random(1);
+        long[] ids = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = (int) (MEMBERS * Math.pow(random.nextDouble(), 3));
+            ids[i] = members.get(index).getId();
+        }
+
+        long[] noCache = measure(ids, true);
+        long[] cached = measure(ids, false);
+
+        print("no cache", noCache);
+        print("2nd level cache", cached);
+    }
+
+    private long[] measure(long[] ids, boolean evict) {
+        emf.getCache().evictAll();
+        long[] latencies = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            if (evict) {
+                emf.getCache().evict(Member.class);
+            }
+            long start = System.nanoTime();
+            memberRepository.findById(ids[i]).orElseThrow();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private void print(String name, long[] sorted) {
+        System.out.printf("%s: p50 = %.3f ms, p99 = %.3f ms%n", name,
+                sorted[sorted.length / 2] / 1_000_000.0,
+                sorted[(int) (sorted.length * 0.99)] / 1_000_000.0);
+    }
+}
@@ -0,0 +1,72 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoundedExecutorTest {
+
+    ExecutorService delegate = Executors.newFixedThreadPool(4);
+    CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        delegate.shutdownNow();
+    }
+
+    @Test
+    public void rejectWhenPendingExceeded() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor(delegate, 1, 2);
+        executor.execute(this::await);      //실행 중
+        executor.execute(() -> { });        //대기
+
+        assertThatThrownBy(() -> executor.execute(() -> { }))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        //끝나면 다시 받는다.
+        release.countDown();
+        Thread.sleep(200);
+        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> "done", executor);
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("done");
+    }
+
+    //실행 순서를 기다리다 인터럽트돼도 작업을 버리지 않는다. (기다리는 쪽이 끝나야 함)
+    @Test
+    public void interruptedWhileWaitingCompletesTask() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor(delegate, 1, 10);
+        executor.execute(this::awaitUninterruptibly);  //인터럽트돼도 자리를 내주지 않음
+        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> "run", executor);
+        FutureTask<String> task = new FutureTask<>(() -> "never");
+        executor.execute(task);
+        Thread.sleep(200);      //둘 다 실행 순서를 기다리는 중
+
+        delegate.shutdownNow(); //대기 중인 스레드 인터럽트
+
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("run");  //취소할 수 없는 작업은 실행
+        assertThat(task.isCancelled()).isTrue();                          //FutureTask는 취소
+    }
+
+    private void awaitUninterruptibly() {
+        while (release.getCount() > 0) {
+            await();
+        }
+    }
+
+    private void await() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package study.datajpa.config;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 메모리 H2 두 개로 읽기/쓰기 라우팅 확인 (복제본에는 테이블이 없으므로 접속한 DB URL로 확인)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "datajpa.datasource.routing.enabled=true",
+        "datajpa.datasource.routing.replicas[0].url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "datajpa.datasource.routing.health-check-interval-ms=3600000"   //테스트 도중 상태 확인이 끼어들지 않도록
+})
+class RoutingDataSourceTest {
+
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired ReplicaRoutingDataSource routingDataSource;
+    @PersistenceContext
+    EntityManager em;
+
+    @AfterEach
+    public void restore() {
+        routingDataSource.markHealthy("replica-0", true);
+    }
+
+    @Test
+    public void readOnlyTransactionGoesToReplica() {
+        assertThat(connectedUrl(true)).contains("replica");
+        assertThat(connectedUrl(false)).contains("primary");
+    }
+
+    //복제본이 비정상이면 읽기도 primary로
+    @Test
+    public void fallbackToPrimary() {
+        routingDataSource.markHealthy("replica-0", false);
+
+        assertThat(connectedUrl(true)).contains("primary");
+    }
+
+    private String connectedUrl(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                em.unwrap(Session.class).doReturningWork(connection -> connection.getMetaData().getURL()));
+    }
+}
@@ -1,15 +1,19 @@
 package study.datajpa.entity;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.AuditorHolder;
+import study.datajpa.support.QueryCountHolder;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -77,4 +81,122 @@ class MemberTest {
         System.out.println("findMember upd = " + findMember.getCreatedBy());
         System.out.println("findMember upd = " + findMember.getLastModifiedBy());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void auditorRunAs() {
+        Member member = AuditorHolder.runAs("batch-1", () -> memberRepository.save(new Member("auditA")));
+        em.flush();
+
+        assertEquals("batch-1", member.getCreatedBy());
+        assertEquals("batch-1", member.getLastModifiedBy());
+
+        //runAs 밖에서는 기본 사용자
+        member.setUsername("auditB");
+        em.flush();
+        assertEquals("batch-1", member.getCreatedBy());
+        assertEquals("system", member.getLastModifiedBy());
+    }
+
+    @Test
+    public void dynamicUpdate() {
+        Member member = memberRepository.save(new Member("dynamicA", 10));
+        em.flush();
+        LocalDateTime modified = member.getLastModifiedDate();
+
+        //바뀐 게 없으면 update도, 수정일 변경도 없다.
+        QueryCountHolder.reset();
+        member.setAge(10);
+        em.flush();
+        assertEquals(0, QueryCountHolder.get().getTotal());
+        assertEquals(modified, member.getLastModifiedDate());
+
+        //age만 바꾸면 age와 수정일만 update (수정자는 같은 사용자라 제외)
+        member.setAge(11);
+        em.flush();
+        String sql = QueryCountHolder.get().getLastSql().toLowerCase();
+        assertTrue(sql.startsWith("update member set"));
+        assertTrue(sql.contains("age=?"));
+        assertTrue(sql.contains("last_modified_date=?"));
+        assertFalse(sql.contains("username"));
+        assertFalse(sql.contains("last_modified_by"));
+        assertFalse(sql.contains("team_id"));
+    }
+
+    @Test
+    public void changeTeamWithoutLoadingMembers() {
+        Team teamA = new Team("moveA");
+        Team teamB = new Team("moveB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member = new Member("mover", 10, teamA);
+        em.persist(member);
+        em.persist(new Member("stay", 20, teamA));
+        em.flush();
+        em.clear();
+
+        //로딩 안 된 컬렉션은 읽지 않는다.
+        Team findA = em.find(Team.class, teamA.getId());
+        Team findB = em.find(Team.class, teamB.getId());
+        Member findMember = em.find(Member.class, member.getId());
+        findMember.changeTeam(findB);
+        assertFalse(Hibernate.isInitialized(findA.getMembers()));
+        assertFalse(Hibernate.isInitialized(findB.getMembers()));
+
+        //flush 전에 로딩해도 옮긴 회원이 반영되어 있다.
+        Hibernate.initialize(findA.getMembers());
+        Hibernate.initialize(findB.getMembers());
+        assertFalse(findA.getMembers().contains(findMember));
+        assertEquals(1, findA.getMembers().size());
+        assertTrue(findB.getMembers().contains(findMember));
+        assertEquals(1, findB.getMembers().size());
+
+        //로딩된 컬렉션은 바로 추가/제거, 두 번 넣어도 한 번만
+        findMember.changeTeam(findA);
+        findMember.changeTeam(findA);
+        assertEquals(2, findA.getMembers().size());
+        assertEquals(0, findB.getMembers().size());
+        em.flush();
+        em.clear();
+
+        assertEquals(teamA.getId(), em.find(Member.class, member.getId()).getTeam().getId());
+    }
+
+    //팀 변경은 회원 행만 수정한다. (Team.members는 낙관적 락 제외 - 팀 행 version 증가, 팀끼리 락 경합 x)
+    @Test
+    public void changeTeamDoesNotUpdateTeams() {
+        Team teamA = new Team("lockA");
+        Team teamB = new Team("lockB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member = new Member("lockMover", 10, teamA);
+        em.persist(member);
+        em.flush();
+        em.clear();
+
+        Team findA = em.find(Team.class, teamA.getId());
+        Team findB = em.find(Team.class, teamB.getId());
+        Long versionA = findA.getVersion();
+        Long versionB = findB.getVersion();
+        Member findMember = em.find(Member.class, member.getId());
+
+        //로딩 안 된 컬렉션
+        findMember.changeTeam(findB);
+        QueryCountHolder.reset();
+        em.flush();
+        assertEquals(1, QueryCountHolder.get().getTotal());
+        assertTrue(QueryCountHolder.get().getLastSql().toLowerCase().startsWith("update member"));
+
+        //로딩된 컬렉션
+        Hibernate.initialize(findA.getMembers());
+        Hibernate.initialize(findB.getMembers());
+        findMember.changeTeam(findA);
+        QueryCountHolder.reset();
+        em.flush();
+        assertEquals(1, QueryCountHolder.get().getTotal());
+        assertTrue(QueryCountHolder.get().getLastSql().toLowerCase().startsWith("update member"));
+        em.clear();
+
+        assertEquals(versionA, em.find(Team.class, teamA.getId()).getVersion());
+        assertEquals(versionB, em.find(Team.class, teamB.getId()).getVersion());
+    }
+}
@@ -5,6 +5,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import study.datajpa.entity.Item;
 
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -17,4 +21,18 @@ class ItemRepositoryTest {
         Item item = new Item("A");
         itemRepository.save(item);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void upsertAll() {
+        itemRepository.save(new Item("upsert1"));
+
+        //upsert1은 이미 있으므로 나머지 2개만 insert
+        int inserted = itemRepository.upsertAll(Arrays.asList(
+                new Item("upsert1"), new Item("upsert2"), new Item("upsert3")));
+
+        Set<String> existing = itemRepository.findExistingIds(Arrays.asList("upsert1", "upsert2", "upsert4"));
+
+        assertThat(inserted).isEqualTo(2);
+        assertThat(existing).containsExactlyInAnyOrder("upsert1", "upsert2");
+    }
+}
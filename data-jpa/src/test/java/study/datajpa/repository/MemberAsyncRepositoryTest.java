@@ -0,0 +1,56 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 비동기 메소드는 다른 스레드의 트랜잭션에서 조회하기 때문에 커밋된 데이터가 필요하다. (테스트 트랜잭션 x, 직접 정리)
+@SpringBootTest
+class MemberAsyncRepositoryTest {
+
+    @Autowired MemberRepository memberRepository;
+
+    List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllInBatch(members);
+    }
+
+    @Test
+    public void findAsync() throws Exception {
+        members.addAll(Arrays.asList(new Member("asyncA", 10), new Member("asyncB", 20)));
+        memberRepository.saveAllBatched(members, 100);
+
+        CompletableFuture<List<Member>> byUsername = memberRepository.findAsyncByUsername("asyncA");
+        CompletableFuture<Member> byId = memberRepository.findAsyncById(members.get(1).getId());
+
+        assertThat(byUsername.get(5, TimeUnit.SECONDS)).extracting("username").containsExactly("asyncA");
+        assertThat(byId.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("asyncB");
+    }
+
+    //findByNames와 같이 중복 제거, 1024개씩 나눠서 조회
+    @Test
+    public void findAsyncByNamesChunked() throws Exception {
+        members.addAll(Arrays.asList(new Member("asyncNameA", 10), new Member("asyncNameB", 20)));
+        memberRepository.saveAllBatched(members, 100);
+
+        List<String> names = IntStream.range(0, 3_000).mapToObj(i -> "missing" + i).collect(Collectors.toList());
+        names.addAll(Arrays.asList("asyncNameA", "asyncNameB", "asyncNameA"));
+
+        List<Member> found = memberRepository.findAsyncByNames(names).get(5, TimeUnit.SECONDS);
+        assertThat(found).extracting("username").containsExactlyInAnyOrder("asyncNameA", "asyncNameB");
+    }
+}
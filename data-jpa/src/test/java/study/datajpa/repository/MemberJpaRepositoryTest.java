@@ -110,6 +110,25 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(6);
     }
     
+    @Test
+    public void cursorPaging() {
+        memberJpaRepository.save(new Member("member1", 111));
+        memberJpaRepository.save(new Member("member2", 111));
+        memberJpaRepository.save(new Member("member2", 111));
+        memberJpaRepository.save(new Member("member3", 111));
+
+        int age = 111;
+        //첫 페이지는 커서 없이
+        List<Member> first = memberJpaRepository.findByCursor(age, null, null, 2);
+        Member last = first.get(first.size() - 1);
+        //이름이 같은 회원이 있어도 (username, id)로 이어서 조회하므로 빠지거나 겹치지 않는다.
+        List<Member> second = memberJpaRepository.findByCursor(age, last.getUsername(), last.getId(), 2);
+
+        assertThat(first).extracting("username").containsExactly("member3", "member2");
+        assertThat(second).extracting("username").containsExactly("member2", "member1");
+        assertThat(second).doesNotContainAnyElementsOf(first);
+    }
+
     //순수 JPA로 연봉의 값을 한번의 쿼리로 바꾸는 작업
     @Test
     public void bulkUpdate() {
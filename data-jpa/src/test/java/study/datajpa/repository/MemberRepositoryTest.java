@@ -1,22 +1,34 @@
 package study.datajpa.repository;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.support.CountCache;
+import study.datajpa.support.QueryBudget;
+import study.datajpa.support.QueryBudgetExtension;
+import study.datajpa.support.QueryCountHolder;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -24,10 +36,13 @@ import static org.assertj.core.api.Assertions.*;
 @SpringBootTest
 @Transactional
 @Rollback(false)
+@ExtendWith(QueryBudgetExtension.class)
 class MemberRepositoryTest {
 
     @Autowired MemberRepository memberRepository;
     @Autowired TeamRepository teamRepository;
+    @Autowired CountCache countCache;
+    @Autowired PlatformTransactionManager transactionManager;
     @PersistenceContext
     EntityManager em;
 
@@ -145,6 +160,24 @@ class MemberRepositoryTest {
         }
     }
 
+    //스트림 조회 - 트랜잭션 안에서 사용하고 close
+    @Test
+    public void streamMemberDto() {
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+        memberRepository.save(new Member("streamA", 10, team));
+        memberRepository.save(new Member("streamB", 20));
+
+        List<MemberDto> result;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            result = stream.filter(dto -> dto.getUsername().startsWith("stream"))
+                    .collect(Collectors.toList());
+        }
+
+        assertThat(result).extracting("username").containsExactly("streamA", "streamB");
+        assertThat(result).extracting("name").containsExactly("teamA", null);
+    }
+
     @Test
     public void findByNames() {
         Member m1 = new Member("AAA", 10);
@@ -158,6 +191,25 @@ class MemberRepositoryTest {
         }
     }
 
+    //이름이 많으면 나눠서 조회 후 합친다. (중복 이름은 한번만)
+    @Test
+    public void findByNamesChunked() {
+        memberRepository.save(new Member("chunkA", 10));
+        memberRepository.save(new Member("chunkB", 20));
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            names.add("none" + i);
+        }
+        names.add("chunkA");
+        names.add("chunkB");
+        names.add("chunkA");
+
+        List<Member> result = memberRepository.findByNames(names);
+
+        assertThat(result).extracting("username").containsExactlyInAnyOrder("chunkA", "chunkB");
+    }
+
     @Test
     public void returnType() {
         Member m1 = new Member("AAA", 10);
@@ -214,6 +266,80 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue();                       // 다음 페이지가 있는지?
     }
 
+    //커서 기반 페이징
+    @Test
+    public void cursorPaging() {
+        Member m1 = memberRepository.save(new Member("member1", 10));
+        Member m2 = memberRepository.save(new Member("member2", 10));
+        Member m3 = memberRepository.save(new Member("member3", 10));
+        Member m4 = memberRepository.save(new Member("member4", 10));
+
+        //m1 다음부터 2개
+        List<Member> page = memberRepository.findMemberByCursor(m1.getId(), 2);
+
+        assertThat(page).containsExactly(m2, m3);
+        //마지막으로 본 id를 커서로 넘기면 이어서 조회된다.
+        assertThat(memberRepository.findMemberByCursor(m3.getId(), 2)).containsExactly(m4);
+    }
+
+    //DTO로 바로 페이징 조회
+    @Test
+    public void findMemberDtoPage() {
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+        memberRepository.save(new Member("dtoA", 10, team));
+        memberRepository.save(new Member("dtoB", 10));
+
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(page.getContent()).extracting("username").containsExactly("dtoB", "dtoA");
+        assertThat(page.getContent()).extracting("name").containsExactly(null, "teamA");
+        assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void findMemberDtoSlice() {
+        memberRepository.save(new Member("sliceA", 10));
+        memberRepository.save(new Member("sliceB", 10));
+        em.flush();
+
+        QueryCountHolder.reset();
+        Slice<MemberDto> slice = memberRepository.findMemberDtoSlice(PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(slice.getContent()).extracting("username").containsExactly("sliceB");
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(QueryCountHolder.get().getTotal()).isEqualTo(1);   //count 쿼리 없음
+    }
+
+    @Test
+    public void countCacheEvictedOnMemberChange() {
+        long before = countCache.get(CountCache.MEMBER, "test", memberRepository::count);
+        assertThat(countCache.get(CountCache.MEMBER, "test", () -> -1L)).isEqualTo(before);  //캐시된 값
+
+        memberRepository.save(new Member("countA", 10));
+        em.flush();     //insert 되면서 MemberChangedEvent
+
+        assertThat(countCache.get(CountCache.MEMBER, "test", memberRepository::count)).isEqualTo(before + 1);
+    }
+
+    //커밋 전에 다른 요청이 센 이전 값은 커밋된 뒤에 다시 비워진다.
+    @Test
+    public void countCacheEvictedAfterCommit() {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        requiresNew.executeWithoutResult(status -> {
+            memberRepository.save(new Member("countB", 10));
+            em.flush();
+            //flush ~ 커밋 사이에 다른 요청이 커밋 전 값을 캐시한 상황
+            countCache.get(CountCache.MEMBER, "stale", () -> -1L);
+            assertThat(countCache.get(CountCache.MEMBER, "stale", () -> 1L)).isEqualTo(-1L);
+        });
+
+        assertThat(countCache.get(CountCache.MEMBER, "stale", () -> 1L)).isEqualTo(1L);
+    }
+
     //스프링 데이터 JPA로 연봉의 값을 한번의 쿼리로 바꾸는 작업
     @Test
     public void bulkUpdate() {
@@ -271,6 +397,44 @@ class MemberRepositoryTest {
         }
     }
 
+    //지연 로딩 - default_batch_fetch_size 덕분에 팀 프록시 3개가 in (...) select 1번으로 로딩된다.
+    //(배치 크기가 1이면 팀 수만큼 같은 select가 반복됨 - NPlusOneDetectionTest)
+    @Test
+    @QueryBudget(value = 2, maxRepeatedSelects = 1)
+    public void lazyTeamBatchFetch() {
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team("nplus" + i);
+            teamRepository.save(team);
+            memberRepository.save(new Member("nplus" + i, 10, team));
+        }
+        em.flush();
+        em.clear();
+
+        QueryCountHolder.reset();
+        List<Member> members = memberRepository.findByNames(Arrays.asList("nplus0", "nplus1", "nplus2"));
+        for (Member member : members) {
+            member.getTeam().getName();
+        }
+    }
+
+    //fetch join이면 팀까지 쿼리 1번
+    @Test
+    @QueryBudget(value = 1, maxRepeatedSelects = 1)
+    public void findMemberFetchJoinQueryBudget() {
+        Team team = new Team("budget");
+        teamRepository.save(team);
+        memberRepository.save(new Member("budget1", 10, team));
+        memberRepository.save(new Member("budget2", 10, team));
+        em.flush();
+        em.clear();
+
+        QueryCountHolder.reset();   //여기서부터 센다.
+        List<Member> members = memberRepository.findMemberFetchJoin();
+        for (Member member : members) {
+            member.getTeam().getName();
+        }
+    }
+
     // Hint & Lock 더티 체킹
     @Test
     public void queryHint() {
@@ -290,6 +454,22 @@ class MemberRepositoryTest {
         em.flush();
     }
 
+    @Test
+    public void saveAllBatched() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("batch" + i, i));
+        }
+
+        int count = memberRepository.saveAllBatched(members, 100);
+
+        assertThat(count).isEqualTo(250);
+        assertThat(members).allMatch(member -> member.getId() != null);
+        //chunk마다 clear 되었기 때문에 영속성 컨텍스트에 남아있지 않다.
+        assertThat(em.contains(members.get(0))).isFalse();
+        assertThat(memberRepository.findById(members.get(249).getId())).isPresent();
+    }
+
     //사용자 정의 리포지토리 ( 국비때 쓰던 방법 )
     @Test
     public void callCustom() {
@@ -0,0 +1,48 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.QueryCountHolder;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 배치 로딩을 끄면(default_batch_fetch_size=1) 지연 로딩 N+1이 그대로 보인다.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.default_batch_fetch_size=1")
+@Transactional
+class NPlusOneDetectionTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    //지연 로딩 N+1 - 팀 수만큼 같은 select가 반복된다.
+    @Test
+    public void detectNPlusOne() {
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team("nplus" + i);
+            teamRepository.save(team);
+            memberRepository.save(new Member("nplus" + i, 10, team));
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evict(Team.class);     //2차 캐시에 있으면 select가 안 나감
+
+        QueryCountHolder.reset();
+        List<Member> members = memberRepository.findByNames(Arrays.asList("nplus0", "nplus1", "nplus2"));
+        for (Member member : members) {
+            member.getTeam().getName();
+        }
+
+        assertThat(QueryCountHolder.get().getMaxRepeatedSelects()).isGreaterThanOrEqualTo(3);
+    }
+}
@@ -0,0 +1,51 @@
+package study.datajpa.repository;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.QueryBudgetExtension;
+import study.datajpa.support.QueryCountHolder;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@ExtendWith(QueryBudgetExtension.class)
+class TeamRepositoryTest {
+
+    @Autowired TeamRepository teamRepository;
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void findPageWithMembers() {
+        for (int i = 0; i < 3; i++) {
+            Team team = teamRepository.save(new Team("page" + i));
+            memberRepository.save(new Member("page" + i + "-1", 10, team));
+            memberRepository.save(new Member("page" + i + "-2", 10, team));
+        }
+        em.flush();
+        em.clear();
+
+        QueryCountHolder.reset();
+        Page<Team> page = teamRepository.findPageWithMembers(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(page.getContent()).extracting("name").containsExactly("page2", "page1");
+        assertThat(page.getContent()).allMatch(team -> Hibernate.isInitialized(team.getMembers()));
+        assertThat(page.getContent().get(0).getMembers()).hasSize(2);
+        //팀 id 페이징, members fetch join, count
+        assertThat(QueryCountHolder.get().getTotal()).isLessThanOrEqualTo(3);
+    }
+}
@@ -0,0 +1,122 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.config.RetryExecutor;
+import study.datajpa.config.RetryProperties;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 여러 스레드가 각자 트랜잭션으로 커밋하기 때문에 테스트 트랜잭션 없이 실행하고 직접 정리한다.
+@SpringBootTest
+class MemberAgeServiceTest {
+
+    static final int THREADS = 8;
+    static final int INCREMENTS = 10;
+
+    @Autowired MemberAgeService memberAgeService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllInBatch(members);
+    }
+
+    @Test
+    public void versionIncreasedOnUpdate() {
+        Member member = save("version1");
+        assertThat(member.getVersion()).isEqualTo(0L);
+
+        memberAgeService.increaseAge(member.getId(), 1);
+
+        assertThat(memberRepository.findById(member.getId()).get().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    public void staleUpdateRejected() {
+        Member member = save("stale1");
+        memberAgeService.increaseAge(member.getId(), 1);
+
+        //version 0인 예전 상태로 덮어쓰려고 하면 실패
+        member.setAge(100);
+        assertThatThrownBy(() -> memberRepository.save(member))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    public void optimisticRetryUnderContention() throws Exception {
+        Member member = save("optimistic1");
+        RetryProperties properties = new RetryProperties();
+        properties.setMaxAttempts(100);     //충돌이 많아도 끝까지
+        properties.setMaxBackoffMs(20);
+        RetryExecutor retryExecutor = new RetryExecutor(properties, transactionManager);
+
+        runConcurrently(() -> retryExecutor.execute(() -> {
+            Member found = memberRepository.findById(member.getId()).get();
+            found.setAge(found.getAge() + 1);
+            return found.getAge();
+        }));
+
+        Member result = memberRepository.findById(member.getId()).get();
+        assertThat(result.getAge()).isEqualTo(THREADS * INCREMENTS);    //덮어쓴 변경 없음
+        assertThat(result.getVersion()).isEqualTo((long) THREADS * INCREMENTS);
+    }
+
+    @Test
+    public void pessimisticLockUnderContention() throws Exception {
+        Member member = save("pessimistic1");
+
+        runConcurrently(() -> memberAgeService.increaseAgeLocked(member.getId(), 1));
+
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(THREADS * INCREMENTS);
+    }
+
+    @Test
+    public void lockedFinderRequiresTransaction() {
+        Member member = save("locked1");
+
+        assertThatThrownBy(() -> memberRepository.findLockedById(member.getId()))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    private Member save(String username) {
+        Member member = memberRepository.save(new Member(username, 0));
+        members.add(member);
+        return member;
+    }
+
+    private void runConcurrently(Runnable increment) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < INCREMENTS; j++) {
+                        increment.run();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
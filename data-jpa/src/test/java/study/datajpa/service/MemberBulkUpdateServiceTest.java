@@ -0,0 +1,60 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 청크마다 커밋하기 때문에 테스트 트랜잭션 없이 실행하고 직접 정리한다.
+@SpringBootTest
+class MemberBulkUpdateServiceTest {
+
+    @Autowired MemberBulkUpdateService memberBulkUpdateService;
+    @Autowired MemberRepository memberRepository;
+
+    List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllInBatch(members);
+    }
+
+    @Test
+    public void bulkAgePlusInChunks() {
+        //다른 테스트 데이터와 겹치지 않도록 큰 나이 사용
+        members.addAll(Arrays.asList(
+                new Member("bulk1", 499), new Member("bulk2", 500), new Member("bulk3", 510),
+                new Member("bulk4", 520), new Member("bulk5", 530)));
+        memberRepository.saveAllBatched(members, 100);
+
+        List<BulkUpdateResult> progress = new ArrayList<>();
+        BulkUpdateResult result = memberBulkUpdateService.bulkAgePlus(500, 2, null, progress::add);
+
+        assertThat(result.getUpdatedRows()).isEqualTo(4);
+        assertThat(result.getChunks()).isEqualTo(2);
+        assertThat(progress).hasSize(2);
+        assertThat(memberRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(499);
+        assertThat(memberRepository.findById(members.get(1).getId()).get().getAge()).isEqualTo(501);
+    }
+
+    @Test
+    public void resumeAfterLastId() {
+        members.addAll(Arrays.asList(new Member("resume1", 600), new Member("resume2", 600)));
+        memberRepository.saveAllBatched(members, 100);
+
+        //첫 번째 회원까지는 이미 처리됐다고 가정
+        BulkUpdateResult result = memberBulkUpdateService.bulkAgePlus(600, 10, members.get(0).getId(), progress -> { });
+
+        assertThat(result.getUpdatedRows()).isEqualTo(1);
+        assertThat(memberRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(600);
+        assertThat(memberRepository.findById(members.get(1).getId()).get().getAge()).isEqualTo(601);
+    }
+}
@@ -0,0 +1,89 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 인덱스는 커밋된 뒤에 반영되기 때문에 테스트 트랜잭션 없이 실행하고 직접 정리한다.
+// deleteAllInBatch(벌크 삭제)는 삭제 이벤트가 없어서 deleteAll로 정리
+@SpringBootTest
+class MemberSearchIndexTest {
+
+    @Autowired MemberSearchIndex memberSearchIndex;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAll(memberRepository.findAllById(
+                members.stream().map(Member::getId).collect(Collectors.toList())));
+    }
+
+    @Test
+    public void prefixAndContains() {
+        Member alpha = save("SearchAlpha");
+        Member beta = save("searchBeta");
+        Member other = save("xAlphaY");
+
+        assertThat(memberSearchIndex.isReady()).isTrue();
+        assertThat(memberSearchIndex.searchIds("searcha", false, 10)).containsExactly(alpha.getId());
+        assertThat(memberSearchIndex.searchIds("search", false, 10)).containsExactly(alpha.getId(), beta.getId());
+        //포함 검색은 이름 순
+        assertThat(memberSearchIndex.searchIds("ALPH", true, 10)).containsExactly(alpha.getId(), other.getId());
+        //3글자 미만
+        assertThat(memberSearchIndex.searchIds("ay", true, 10)).containsExactly(other.getId());
+        assertThat(memberSearchIndex.searchIds("alpha", true, 1)).containsExactly(alpha.getId());
+    }
+
+    @Test
+    public void updateAndDelete() {
+        Member member = save("searchOld");
+
+        member.setUsername("searchNew");
+        memberRepository.save(member);
+        assertThat(memberSearchIndex.searchIds("searchold", false, 10)).isEmpty();
+        assertThat(memberSearchIndex.searchIds("searchnew", false, 10)).containsExactly(member.getId());
+
+        memberRepository.deleteById(member.getId());
+        assertThat(memberSearchIndex.searchIds("searchnew", false, 10)).isEmpty();
+    }
+
+    @Test
+    public void rolledBackChangesAreNotIndexed() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.saveAndFlush(new Member("searchRollback"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(memberSearchIndex.searchIds("searchrollback", false, 10)).isEmpty();
+    }
+
+    @Test
+    public void rebuild() {
+        Member member = save("searchRebuild");
+
+        memberSearchIndex.rebuild();
+
+        assertThat(memberSearchIndex.searchIds("searchreb", false, 10)).containsExactly(member.getId());
+    }
+
+    private Member save(String username) {
+        Member member = memberRepository.save(new Member(username));
+        members.add(member);
+        return member;
+    }
+}
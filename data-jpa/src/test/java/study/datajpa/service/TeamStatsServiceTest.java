@@ -0,0 +1,119 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.TeamStatsDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 통계는 커밋된 뒤에 반영되기 때문에 테스트 트랜잭션 없이 실행하고 직접 정리한다.
+@SpringBootTest
+class TeamStatsServiceTest {
+
+    @Autowired TeamStatsService teamStatsService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    List<Member> members = new ArrayList<>();
+    List<Team> teams = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAll(memberRepository.findAllById(
+                members.stream().map(Member::getId).collect(Collectors.toList())));
+        teamRepository.deleteAll(teams);
+    }
+
+    @Test
+    public void countersFollowMemberChanges() {
+        Team teamA = team("statsA");
+        Team teamB = team("statsB");
+        save(new Member("stats1", 710, teamA));
+        Member max = save(new Member("stats2", 730, teamA));
+        Member moving = save(new Member("stats3", 720, teamA));
+
+        assertStats(teamRepository.findById(teamA.getId()).get(), 3, 2160, 710, 730);
+
+        //팀 변경
+        moving.changeTeam(teamB);
+        memberRepository.save(moving);
+        assertStats(teamA, 2, 1440, 710, 730);
+        assertStats(teamB, 1, 720, 720, 720);
+
+        //최대 나이인 회원 삭제 -> 그 팀만 다시 계산
+        memberRepository.deleteById(max.getId());
+        assertStats(teamA, 1, 710, 710, 710);
+    }
+
+    @Test
+    public void bulkUpdateTriggersReconcile() {
+        Team team = team("statsBulk");
+        save(new Member("bulk1", 800, team));
+        save(new Member("bulk2", 810, team));
+        assertStats(team, 2, 1610, 800, 810);
+
+        memberRepository.bulkAgePlus(800);
+
+        assertStats(team, 2, 1612, 801, 811);
+        assertThat(teamStatsService.getAllStats()).extracting("teamId").contains(team.getId());
+    }
+
+    //커밋은 됐지만 통계에 반영(afterCommit)되기 전에 reconcile - group by에 이미 보이는 변경을 또 더하지 않는다.
+    @Test
+    public void reconcileBetweenCommitAndApply() {
+        Team team = team("statsRace");
+        save(new Member("race1", 900, team));
+        assertStats(team, 1, 900, 900, 900);
+
+        Member saved = new TransactionTemplate(transactionManager).execute(status -> {
+            //먼저 등록했기 때문에 통계 반영보다 먼저 실행된다. (트랜잭션이 끝나는 중이라 다른 스레드에서)
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    CompletableFuture.runAsync(teamStatsService::reconcile).join();
+                }
+            });
+            return memberRepository.save(new Member("race2", 910, team));
+        });
+        members.add(saved);
+
+        assertStats(team, 2, 1810, 900, 910);
+    }
+
+    private void assertStats(Team team, long count, long sum, int min, int max) {
+        TeamStatsDto stats = teamStatsService.getStats(team.getId());
+        assertThat(stats.getMemberCount()).isEqualTo(count);
+        assertThat(stats.getAgeSum()).isEqualTo(sum);
+        assertThat(stats.getMinAge()).isEqualTo(min);
+        assertThat(stats.getMaxAge()).isEqualTo(max);
+        assertThat(stats.getAverageAge()).isEqualTo((double) sum / count);
+    }
+
+    private Team team(String name) {
+        Team team = teamRepository.save(new Team(name));
+        teams.add(team);
+        return team;
+    }
+
+    private Member save(Member member) {
+        Member saved = memberRepository.save(member);
+        members.add(saved);
+        return saved;
+    }
+}
@@ -0,0 +1,74 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CoalescingLoaderTest {
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Set<Long>> batches = new CopyOnWriteArrayList<>();
+
+    CoalescingLoader<Long, String> loader = new CoalescingLoader<>(ids -> {
+        batches.add(ids);
+        Map<Long, String> result = new HashMap<>();
+        ids.stream().filter(id -> id > 0).forEach(id -> result.put(id, "member" + id));
+        return result;
+    }, executor, 50_000, 3);
+
+    @AfterEach
+    public void shutdown() {
+        loader.shutdown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void sameIdSharesOneLoad() {
+        CompletableFuture<String> first = loader.load(1L);
+        CompletableFuture<String> second = loader.load(1L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.join()).isEqualTo("member1");
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    public void idsInWindowAreBatched() {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            futures.add(loader.load(id));
+        }
+        futures.add(loader.load(-1L));  //없는 id
+
+        futures.forEach(CompletableFuture::join);
+        assertThat(futures.get(4).join()).isEqualTo("member5");
+        assertThat(futures.get(5).join()).isNull();
+        //maxBatch = 3 -> 6개가 두 번에 나눠서 조회
+        assertThat(batches).hasSize(2);
+        assertThat(batches).allMatch(batch -> batch.size() == 3);
+    }
+
+    @Test
+    public void failureCompletesAllWaiting() {
+        CoalescingLoader<Long, String> failing = new CoalescingLoader<>(ids -> {
+            throw new IllegalStateException("DB 오류");
+        }, executor, 1_000, 10);
+        try {
+            CompletableFuture<String> future = failing.load(1L);
+            assertThatThrownBy(future::join).hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            failing.shutdown();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package study.datajpa.support;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 요청 밖(스케줄러, 비동기 스레드)에서는 트랜잭션마다 새로 센다.
+// findByUsername(네임드 쿼리)은 쿼리 캐시를 써서 SQL이 안 나갈 수 있으므로 캐시 안 하는 메소드 이름 쿼리로 확인
+@SpringBootTest(properties = {"datajpa.n-plus-one.mode=fail", "datajpa.n-plus-one.threshold=3"})
+class NPlusOneDetectorTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    public void countPerTransactionOutsideRequest() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+
+        //트랜잭션 5개에서 같은 select 1번씩 - 한 스레드에 쌓였다면 3번째에서 NPlusOneException
+        for (int i = 0; i < 5; i++) {
+            assertThatCode(() -> memberRepository.findListByUsername("nobody")).doesNotThrowAnyException();
+        }
+        assertThat(statistics.getPrepareStatementCount() - before).isGreaterThanOrEqualTo(5);  //매번 SQL이 실행됨 (캐시 x)
+        //트랜잭션이 끝나면 남는 것이 없다.
+        assertThat(QueryCountHolder.current()).isNull();
+    }
+
+    @Test
+    public void failInsideScope() {
+        QueryCountHolder.reset();
+        try {
+            memberRepository.findListByUsername("nobody");
+            memberRepository.findListByUsername("nobody");
+            Throwable thrown = catchThrowable(() -> memberRepository.findListByUsername("nobody"));
+            //하이버네이트/스프링 예외로 감싸질 수 있어서 원인까지 확인
+            assertThat(Stream.iterate(thrown, Objects::nonNull, Throwable::getCause))
+                    .anyMatch(NPlusOneException.class::isInstance);
+        } finally {
+            QueryCountHolder.clear();
+        }
+    }
+}
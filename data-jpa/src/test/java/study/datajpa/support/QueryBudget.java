@@ -0,0 +1,19 @@
+package study.datajpa.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// 테스트 하나에서 실행될 수 있는 SQL 수 (QueryBudgetExtension과 같이 사용)
+// 준비 데이터 저장 쿼리를 빼고 싶으면 테스트 중간에 QueryCountHolder.reset() 호출
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    // 전체 SQL 수
+    int value();
+
+    // 같은 select가 반복될 수 있는 횟수 (N+1 방지)
+    int maxRepeatedSelects() default Integer.MAX_VALUE;
+}
@@ -0,0 +1,33 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+// @QueryBudget이 붙은 테스트가 SQL을 예산보다 많이 실행하면 실패시킨다.
+// 트랜잭션 커밋(flush) 전에 검사하므로 테스트 본문에서 실행된 SQL만 센다.
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryCountHolder.reset();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCount count = QueryCountHolder.get();
+        QueryCountHolder.clear();
+
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        if (budget == null) {
+            return;
+        }
+        if (count.getTotal() > budget.value()) {
+            throw new AssertionError("SQL 예산 초과 - 예산 " + budget.value() + "건, 실행 " + count.getTotal() + "건");
+        }
+        if (count.getMaxRepeatedSelects() > budget.maxRepeatedSelects()) {
+            throw new AssertionError("같은 select가 " + count.getMaxRepeatedSelects() + "번 반복됨 (N+1 의심), 허용 "
+                    + budget.maxRepeatedSelects() + "번");
+        }
+    }
+}
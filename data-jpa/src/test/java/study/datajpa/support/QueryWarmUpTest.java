@@ -0,0 +1,41 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 실행 모드는 기본 설정에서 꺼져 있다. (prod 프로필에서만)
+@SpringBootTest(properties = "datajpa.warm-up.execute=true")
+class QueryWarmUpTest {
+
+    @Autowired QueryWarmUp queryWarmUp;
+
+    @Test
+    public void warmUpAllQueryMethods() {
+        List<QueryWarmUp.Result> results = queryWarmUp.warmUp();
+        Map<String, QueryWarmUp.Result> byMethod = results.stream()
+                .collect(Collectors.toMap(QueryWarmUp.Result::getMethod, Function.identity(), (a, b) -> a));
+
+        assertThat(results).noneMatch(result -> result.getStatus() == QueryWarmUp.Status.FAILED);
+
+        //@Query는 컴파일 + 실행, 메소드 이름 쿼리는 실행만
+        assertThat(byMethod.get("MemberRepository.findMemberDtoPage").getCompileNanos()).isPositive();
+        assertThat(byMethod.get("MemberRepository.findMemberDtoPage").getExecuteNanos()).isPositive();
+        assertThat(byMethod.get("MemberRepository.findByUsernameAndAgeGreaterThan").getCompileNanos()).isZero();
+        assertThat(byMethod.get("MemberRepository.findByUsernameAndAgeGreaterThan").getExecuteNanos()).isPositive();
+        //네임드 쿼리
+        assertThat(byMethod.get("MemberRepository.findByUsername").getCompileNanos()).isPositive();
+
+        //수정, 락, 비동기는 실행하지 않음
+        assertThat(byMethod.get("MemberRepository.bulkAgePlus").getStatus()).isEqualTo(QueryWarmUp.Status.SKIPPED);
+        assertThat(byMethod.get("MemberRepository.findLockedById").getStatus()).isEqualTo(QueryWarmUp.Status.SKIPPED);
+        assertThat(byMethod.get("MemberRepository.findAsyncById").getStatus()).isEqualTo(QueryWarmUp.Status.SKIPPED);
+    }
+}